@@ -1,22 +1,26 @@
 package com.uade.beappsint.config;
 
+import com.uade.beappsint.entity.Customer;
 import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.service.PasswordHashingService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Configuration
 public class ApplicationConfiguration {
     private final CustomerRepository customerRepository;
+    private final PasswordHashingService passwordHashingService;
 
-    public ApplicationConfiguration(CustomerRepository customerRepository) {
+    public ApplicationConfiguration(CustomerRepository customerRepository, PasswordHashingService passwordHashingService) {
         this.customerRepository = customerRepository;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @Bean
@@ -25,9 +29,14 @@ public class ApplicationConfiguration {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // Called after a successful login when the stored hash has a different cost than the configured one.
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            Customer customer = (Customer) user;
+            customer.setPassword(newPassword);
+            return customerRepository.save(customer);
+        };
     }
 
     @Bean
@@ -40,7 +49,8 @@ public class ApplicationConfiguration {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordHashingService);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
 
         return authProvider;
     }
@@ -0,0 +1,203 @@
+package com.uade.beappsint.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.beappsint.enums.RateLimitScopeEnum;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.exception.TooManyRequestsException;
+import com.uade.beappsint.service.RateLimiterService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rate limits the password and email endpoints per client IP and per account email, answering 429
+ * with {@code Retry-After} before any password is hashed.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiterService rateLimiterService;
+    private final ObjectMapper objectMapper;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final String clientIpHeader;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public AuthRateLimitFilter(
+            RateLimiterService rateLimiterService,
+            ObjectMapper objectMapper,
+            HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${security.rate-limit.client-ip-header:X-Forwarded-For}") String clientIpHeader,
+            @Value("${security.rate-limit.trusted-proxies:}") List<String> trustedProxies
+    ) {
+        this.rateLimiterService = rateLimiterService;
+        this.objectMapper = objectMapper;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.clientIpHeader = clientIpHeader;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String path = request.getServletPath();
+        boolean post = "POST".equals(request.getMethod());
+        HttpServletRequest filtered = request;
+
+        try {
+            if (post && "/auth/login".equals(path)) {
+                filtered = new CachedBodyRequest(request, readBody(request));
+                admit(RateLimitScopeEnum.LOGIN_IP, RateLimitScopeEnum.LOGIN_EMAIL, request, readEmail(((CachedBodyRequest) filtered).body));
+            } else if (post && "/auth/signup".equals(path)) {
+                filtered = new CachedBodyRequest(request, readBody(request));
+                admit(RateLimitScopeEnum.SIGNUP_IP, RateLimitScopeEnum.SIGNUP_EMAIL, request, readEmail(((CachedBodyRequest) filtered).body));
+            } else if (hasBasicCredentials(request)) {
+                admit(RateLimitScopeEnum.LOGIN_IP, RateLimitScopeEnum.LOGIN_EMAIL, request, readBasicUsername(request));
+            }
+        } catch (TooManyRequestsException | BadRequestException exception) {
+            handlerExceptionResolver.resolveException(request, response, null, exception);
+            return;
+        }
+
+        filterChain.doFilter(filtered, response);
+    }
+
+    private void admit(RateLimitScopeEnum ipScope, RateLimitScopeEnum emailScope, HttpServletRequest request, String email) {
+        long retryAfter = rateLimiterService.tryAcquire(ipScope, clientIp(request));
+        if (retryAfter == 0 && email != null) {
+            retryAfter = rateLimiterService.tryAcquire(emailScope, email);
+        }
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts, try again later.", retryAfter);
+        }
+    }
+
+    // Reads the header from the right past the trusted proxies, so a client cannot pick its own bucket.
+    private String clientIp(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String header = request.getHeader(clientIpHeader);
+        if (header == null || !isTrustedProxy(address)) return address;
+
+        String[] hops = header.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) continue;
+            address = hop;
+            if (!isTrustedProxy(hop)) break;
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] readBody(HttpServletRequest request) throws IOException {
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) throw new BadRequestException("Request body too large.");
+        return body;
+    }
+
+    // A body that is not JSON or has no email only counts against the IP; the controller rejects it.
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email == null || !email.isTextual() ? null : normalize(email.asText());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasBasicCredentials(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, "Basic ", 0, 6);
+    }
+
+    private static String readBasicUsername(HttpServletRequest request) {
+        try {
+            String decoded = new String(Base64.getDecoder().decode(request.getHeader(HttpHeaders.AUTHORIZATION).substring(6).trim()), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return separator < 0 ? null : normalize(decoded.substring(0, separator));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                public boolean isReady() {
+                    return true;
+                }
+
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                public int read() {
+                    return input.read();
+                }
+
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() == null ? StandardCharsets.UTF_8.name() : getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.uade.beappsint.config;
 
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
 import com.uade.beappsint.exception.GenericException;
 import com.uade.beappsint.exception.JwtFilterException;
 import com.uade.beappsint.service.JwtService;
+import com.uade.beappsint.enums.KycStatusEnum;
+import com.uade.beappsint.service.PrincipalCacheService;
+import com.uade.beappsint.service.TokenRevocationService;
+import com.uade.beappsint.service.impl.AuthServiceImpl;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,16 +32,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            PrincipalCacheService principalCacheService,
+            TokenRevocationService tokenRevocationService,
+            HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${security.jwt.stateless:false}") boolean stateless
     ) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principalCacheService = principalCacheService;
+        this.tokenRevocationService = tokenRevocationService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.stateless = stateless;
     }
 
     @Override
@@ -54,18 +65,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final VerifiedTokenDTO token = jwtService.verifyToken(jwt);
+            final String userEmail = token.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                CustomerPrincipalDTO principal = resolvePrincipal(token);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -84,4 +96,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, new GenericException("Error: ", exception));
         }
     }
+
+    /**
+     * In stateless mode a token carrying the customer claims is turned into the principal without
+     * touching the database, and only the deny list is checked. Otherwise, and for tokens issued
+     * before the claims existed, the principal comes from the cache. Returns null for a revoked token.
+     */
+    private CustomerPrincipalDTO resolvePrincipal(VerifiedTokenDTO token) {
+        Number stamp = token.getClaim(AuthServiceImpl.SECURITY_STAMP_CLAIM, Number.class);
+        Number customerId = token.getClaim(AuthServiceImpl.CUSTOMER_ID_CLAIM, Number.class);
+
+        if (stateless && stamp != null && customerId != null) {
+            Number claimsVersion = token.getClaim(AuthServiceImpl.CLAIMS_VERSION_CLAIM, Number.class);
+            long tokenClaimsVersion = claimsVersion == null ? 0 : claimsVersion.longValue();
+            if (tokenRevocationService.isRevoked(customerId.intValue(), stamp.longValue(), tokenClaimsVersion, token.getIssuedAt())) return null;
+            String kycStatus = token.getClaim(AuthServiceImpl.KYC_STATUS_CLAIM, String.class);
+            return new CustomerPrincipalDTO(
+                    customerId.intValue(),
+                    token.getSubject(),
+                    Boolean.TRUE.equals(token.getClaim(AuthServiceImpl.ADMIN_CLAIM, Boolean.class)),
+                    kycStatus == null ? null : KycStatusEnum.valueOf(kycStatus),
+                    stamp.longValue()
+            );
+        }
+
+        CustomerPrincipalDTO principal = principalCacheService.getPrincipal(token.getSubject());
+        // Tokens issued before the stamp claim existed carry none and stay valid until they expire.
+        boolean current = stamp == null || stamp.longValue() == principal.getSecurityStamp();
+        return current ? principal : null;
+    }
 }
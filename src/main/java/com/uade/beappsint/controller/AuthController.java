@@ -14,6 +14,15 @@ public interface AuthController {
     @Operation(summary = "Log in an existing user", description = "Authenticates a user and returns a token")
     ResponseEntity<LoginResponseDTO> login(LoginRequestDTO loginRequestDTO);
 
+    @Operation(summary = "Refresh the session", description = "Trades a refresh token for a new token and a new refresh token, without the password. Each refresh token can be used once")
+    ResponseEntity<LoginResponseDTO> refresh(RefreshTokenRequestDTO request);
+
+    @Operation(summary = "Log out", description = "Revokes the refresh token and every token rotated from the same login")
+    ResponseEntity<GenericResponseDTO> logout(RefreshTokenRequestDTO request);
+
+    @Operation(summary = "Get authentication metrics", description = "Returns the login and refresh counters of this node. Only admins can perform this action")
+    ResponseEntity<AuthMetricsDTO> getAuthMetrics();
+
     @Operation(summary = "Get customer information", description = "Retrieves information about the authenticated customer")
     ResponseEntity<CustomerInfoDTO> customerInfo();
 
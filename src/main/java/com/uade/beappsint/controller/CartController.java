@@ -1,7 +1,9 @@
 package com.uade.beappsint.controller;
 
 import com.uade.beappsint.dto.cart.AddRequestDTO;
+import com.uade.beappsint.dto.cart.CartBatchRequestDTO;
 import com.uade.beappsint.dto.cart.CartDTO;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
 import org.springframework.http.ResponseEntity;
 
 public interface CartController {
@@ -11,7 +13,11 @@ public interface CartController {
 
     ResponseEntity<CartDTO> removeOneProductFromCart(Long productId);
 
+    ResponseEntity<CartDTO> updateCart(CartBatchRequestDTO request);
+
     ResponseEntity<CartDTO> clearCart();
 
     ResponseEntity<CartDTO> getCart();
+
+    ResponseEntity<CartSummaryDTO> getCartSummary();
 }
@@ -1,10 +1,12 @@
 package com.uade.beappsint.controller;
 
 import com.uade.beappsint.dto.AdminRequestDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.dto.ReviewDTO;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
 import com.uade.beappsint.dto.kyc.KycBasicRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResidentialRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResponseDTO;
@@ -51,8 +53,8 @@ public interface CustomerController {
     @Operation(summary = "Sets the user's preferred theme", description = "Sets the user's preferred theme to be light or dark.")
     ResponseEntity<GenericResponseDTO> setUsersTheme(ThemeDTO themeDTO);
 
-    @Operation(summary = "If the requester is admin, returns all the registered users in the system", description = "If the requester is admin, returns all the registered users in the system.")
-    ResponseEntity<List<CustomerInfoDTO>> getRegisteredUsers();
+    @Operation(summary = "If the requester is admin, returns one page of the registered users in the system", description = "If the requester is admin, returns one page of the enabled users ordered by id, optionally filtered by email prefix, admin flag, KYC status, verified flag and created date range. Use the returned cursor as 'after' to get the next page.")
+    ResponseEntity<CursorPageDTO<CustomerInfoDTO>> getRegisteredUsers(CustomerQueryDTO query);
 
     @Operation(summary = "If the requester is admin, is allowed to delete a user", description = "If the requester is admin, is allowed to delete a user")
     ResponseEntity<GenericResponseDTO> deleteUser(Integer id);
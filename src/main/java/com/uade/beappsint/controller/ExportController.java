@@ -0,0 +1,27 @@
+package com.uade.beappsint.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Tag(name = "Export", description = "Endpoints for streaming admin reports")
+public interface ExportController {
+    @Operation(
+            summary = "Export all products",
+            description = "Streams every product ordered by id as NDJSON (default) or CSV. Send 'after' with the last received id to resume. Gzipped when the client accepts it. Only admins can perform this action."
+    )
+    ResponseEntity<StreamingResponseBody> exportProducts(String format, Long after, String acceptEncoding);
+
+    @Operation(
+            summary = "Export all customers",
+            description = "Streams every customer ordered by id as NDJSON (default) or CSV, without passwords or verification codes. Send 'after' with the last received id to resume. Gzipped when the client accepts it. Only admins can perform this action."
+    )
+    ResponseEntity<StreamingResponseBody> exportCustomers(String format, Long after, String acceptEncoding);
+
+    @Operation(
+            summary = "Export all transactions",
+            description = "Streams every transaction ordered by id as NDJSON (default) or CSV. Send 'after' with the last received id to resume. Gzipped when the client accepts it. Only admins can perform this action."
+    )
+    ResponseEntity<StreamingResponseBody> exportTransactions(String format, Long after, String acceptEncoding);
+}
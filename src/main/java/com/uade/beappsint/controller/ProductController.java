@@ -1,29 +1,40 @@
 package com.uade.beappsint.controller;
 
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @Tag(name = "Product", description = "Endpoints for product display and management")
 public interface ProductController {
     @Operation(
             summary = "Return all products",
-            description = "Returns all the database products and their info."
+            description = "Returns one page of the database products ordered by id. Use the returned cursor as 'after' to get the next page. Answers If-None-Match with 304 while the catalog is unchanged."
     )
-    ResponseEntity<List<ProductDTO>> getAllProducts();
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getAllProducts(Integer limit, String after, WebRequest request);
 
     @Operation(
             summary = "Return a product by the ID",
-            description = "Returns a product by the ID."
+            description = "Returns a product by the ID. Answers If-None-Match with 304 while the product is unchanged."
     )
-    ResponseEntity<ProductDTO> getProductById(Long id);
+    ResponseEntity<ProductDTO> getProductById(Long id, WebRequest request);
 
     @Operation(
             summary = "Create a product",
@@ -31,9 +42,15 @@ public interface ProductController {
     )
     ResponseEntity<ProductDTO> createProduct(ProductRequestDTO product);
 
+    @Operation(
+            summary = "Import products in bulk",
+            description = "Creates the products of a CSV (text/csv, with a header row) or NDJSON (application/x-ndjson) body. Rows are validated like a single creation and written in batches; invalid rows are reported by number and skipped. Only admins can perform this action."
+    )
+    ResponseEntity<ProductImportResultDTO> importProducts(String contentType, InputStream body);
+
     @Operation(
             summary = "update a product",
-            description = "update a product. Only admins can perform this action."
+            description = "update a product. The request must carry the version the edit was based on; a missing version is rejected with 400 and an outdated one with 409. Only admins can perform this action."
     )
     ResponseEntity<ProductDTO> updateProduct(Long id, ProductRequestDTO productDetails);
 
@@ -51,39 +68,45 @@ public interface ProductController {
 
     @Operation(
             summary = "Return the featured products",
-            description = "Return the actual featured products."
+            description = "Return the trending products, ranked by recent views and purchases. Optionally filtered by category, over a window of hour, day (default) or week."
     )
-    ResponseEntity<List<ProductDTO>> getFeaturedProducts();
+    ResponseEntity<List<ProductDTO>> getFeaturedProducts(String category, String window);
 
     @Operation(
             summary = "Return the category products",
-            description = "Return the category products."
+            description = "Return one page of the category products ordered by id."
     )
-    ResponseEntity<List<ProductDTO>> getProductsByCategory(String category);
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategory(String category, Integer limit, String after, WebRequest request);
 
     @Operation(
             summary = "Return the user's recently viewed products",
-            description = "Return the user's recently viewed products."
+            description = "Return one page of the user's recently viewed products with the time of the last view, newest first. Only the latest views are kept."
     )
-    ResponseEntity<List<ProductDTO>> getRecentlyViewedProducts();
+    ResponseEntity<CursorPageDTO<RecentlyViewedProductDTO>> getRecentlyViewedProducts(Integer limit, String after);
 
     @Operation(
             summary = "Search products by name",
-            description = "Returns products that match the given partial name."
+            description = "Returns one page of products ranked by relevance. Name, director, category and description are searched, ignoring case and accents."
+    )
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> searchProductsByName(String partialName, Integer limit, String after, WebRequest request);
+
+    @Operation(
+            summary = "Query products with filters and facets",
+            description = "Filters by any combination of categories, price range, year range or decade, director, stock and text. Sorts by id, price, year, views or name with keyset pagination, and returns the product counts per category and per decade. Only the best 1000 text matches are considered, and truncated is true when more matched. Views change while paging, so a walk sorted by views can skip or repeat products."
     )
-    ResponseEntity<List<ProductDTO>> searchProductsByName(String partialName);
+    ResponseEntity<ProductQueryResultDTO> queryProducts(ProductQueryDTO query);
 
     @Operation(
             summary = "Get product recommendations",
-            description = "Get recommendations for a product based on genre, decade, and director."
+            description = "Get the precomputed recommendations for a product, ranked by shared director, genre and decade."
     )
-    ResponseEntity<List<ProductDTO>> getRecommendations(Long id);
+    ResponseEntity<List<ProductSummaryDTO>> getRecommendations(Long id, Integer limit, WebRequest request);
 
     @Operation(
             summary = "Get images associated with a product",
             description = "Retrieves all images that are associated with a specific product ID. This is useful for displaying multiple views of a product."
     )
-    ResponseEntity<List<ImageDTO>> getImagesByProductId(Long productId);
+    ResponseEntity<List<ImageDTO>> getImagesByProductId(Long productId, WebRequest request);
 
 
     @Operation(
@@ -104,12 +127,24 @@ public interface ProductController {
     )
     ResponseEntity<GenericResponseDTO> toggleFavorite(Long productId);
 
+    @Operation(
+            summary = "Add and remove many favorites",
+            description = "Adds the 'add' product ids to the user's favorites and removes the 'remove' ones in one request. Unknown products and favorites already in the requested state are skipped. Returns the counts of changed favorites and the resulting favorite ids."
+    )
+    ResponseEntity<FavoriteBatchResultDTO> updateFavorites(FavoriteBatchRequestDTO request);
+
     @Operation(
             summary = "Remove all secondary images of product",
             description = "Remove all secondary images of product."
     )
     ResponseEntity<Void> removeProductSecondaryImages(Long productId);
 
+    @Operation(
+            summary = "Return the catalog cache statistics",
+            description = "Returns size, hit, miss and eviction counters of the catalog cache regions. Only admins can perform this action."
+    )
+    ResponseEntity<List<CacheStatsDTO>> getCatalogCacheStats();
+
 
 
 
@@ -121,25 +156,25 @@ public interface ProductController {
 
     @Operation(
             summary = "Returns products in a price range.",
-            description = "Returns products in a price range."
+            description = "Returns one page of the products in a price range, ordered by price and id."
     )
-    ResponseEntity<List<ProductDTO>> getProductsByPriceRange(Double minPrice, Double maxPrice);
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByPriceRange(Double minPrice, Double maxPrice, Integer limit, String after, WebRequest request);
 
     @Operation(
             summary = "Returns products inside many categories.",
-            description = "Returns products inside many categories."
+            description = "Returns one page of the products inside many categories, ordered by id."
     )
-    ResponseEntity<List<ProductDTO>> getProductsByCategories(List<String> categories);
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategories(List<String> categories, Integer limit, String after, WebRequest request);
 
     @Operation(
             summary = "Returns just products in stock.",
-            description = "Returns just products in stock."
+            description = "Returns one page of the products in stock, ordered by id."
     )
-    ResponseEntity<List<ProductDTO>> getProductsInStock();
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsInStock(Integer limit, String after, WebRequest request);
 
     @Operation(
             summary = "Returns products above a certain price.",
-            description = "Returns products above a certain price."
+            description = "Returns one page of the products above a certain price, ordered by price and id."
     )
-    ResponseEntity<List<ProductDTO>> getProductsAbovePrice(Double price);
+    ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsAbovePrice(Double price, Integer limit, String after, WebRequest request);
 }
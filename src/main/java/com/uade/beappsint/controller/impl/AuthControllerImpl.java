@@ -32,6 +32,27 @@ public class AuthControllerImpl implements AuthController {
                 .body(authService.login(loginRequestDTO));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<GenericResponseDTO> logout(@RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(authService.logout(request));
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<AuthMetricsDTO> getAuthMetrics() {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(authService.getAuthMetrics());
+    }
+
     @GetMapping("/info")
     public ResponseEntity<CustomerInfoDTO> customerInfo() {
         return ResponseEntity
@@ -2,7 +2,9 @@ package com.uade.beappsint.controller.impl;
 
 import com.uade.beappsint.controller.CartController;
 import com.uade.beappsint.dto.cart.AddRequestDTO;
+import com.uade.beappsint.dto.cart.CartBatchRequestDTO;
 import com.uade.beappsint.dto.cart.CartDTO;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
 import com.uade.beappsint.service.CartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +31,11 @@ public class CartControllerImpl implements CartController {
         return ResponseEntity.ok(cartService.removeOneProductFromCart(productId));
     }
 
+    @PatchMapping()
+    public ResponseEntity<CartDTO> updateCart(@RequestBody CartBatchRequestDTO request) {
+        return ResponseEntity.ok(cartService.applyOperations(request));
+    }
+
     @DeleteMapping("/clear")
     public ResponseEntity<CartDTO> clearCart() {
         return ResponseEntity.ok(cartService.clearCart());
@@ -38,4 +45,9 @@ public class CartControllerImpl implements CartController {
     public ResponseEntity<CartDTO> getCart() {
         return ResponseEntity.ok(cartService.getUserCart());
     }
+
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryDTO> getCartSummary() {
+        return ResponseEntity.ok(cartService.getCartSummary());
+    }
 }
@@ -2,10 +2,12 @@ package com.uade.beappsint.controller.impl;
 
 import com.uade.beappsint.controller.CustomerController;
 import com.uade.beappsint.dto.AdminRequestDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.dto.ReviewDTO;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
 import com.uade.beappsint.dto.kyc.KycBasicRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResidentialRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResponseDTO;
@@ -105,10 +107,10 @@ public class CustomerControllerImpl implements CustomerController {
     }
 
     @GetMapping("/registered")
-    public ResponseEntity<List<CustomerInfoDTO>> getRegisteredUsers() {
+    public ResponseEntity<CursorPageDTO<CustomerInfoDTO>> getRegisteredUsers(@ModelAttribute CustomerQueryDTO query) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(customerService.getRegisteredUsers());
+                .body(customerService.getRegisteredUsers(query));
     }
 
     @DeleteMapping("/{id}")
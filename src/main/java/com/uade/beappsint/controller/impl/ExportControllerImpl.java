@@ -0,0 +1,69 @@
+package com.uade.beappsint.controller.impl;
+
+import com.uade.beappsint.controller.ExportController;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ExportResourceEnum;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+public class ExportControllerImpl implements ExportController {
+    private final ExportService exportService;
+
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(ExportResourceEnum.PRODUCTS, format, after, acceptEncoding);
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(ExportResourceEnum.CUSTOMERS, format, after, acceptEncoding);
+    }
+
+    @GetMapping("/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(ExportResourceEnum.TRANSACTIONS, format, after, acceptEncoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ExportResourceEnum resource, String format, Long after, String acceptEncoding) {
+        DataFormatEnum exportFormat = resolveFormat(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String filename = resource.name().toLowerCase() + "." + exportFormat.getExtension();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        return response.body(exportService.export(resource, exportFormat, after, gzip));
+    }
+
+    private DataFormatEnum resolveFormat(String format) {
+        if (format == null || format.isBlank()) return DataFormatEnum.NDJSON;
+        try {
+            return DataFormatEnum.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid format. Use one of: " + Arrays.toString(DataFormatEnum.values()));
+        }
+    }
+}
@@ -1,34 +1,71 @@
 package com.uade.beappsint.controller.impl;
 
 import com.uade.beappsint.controller.ProductController;
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
 import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.dto.CatalogVersionDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.service.CatalogVersionService;
+import com.uade.beappsint.service.ProductImportService;
 import com.uade.beappsint.service.ProductService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductControllerImpl implements ProductController {
     private final ProductService productService;
-
-    public ProductControllerImpl(ProductService productService) {
+    private final CatalogVersionService catalogVersionService;
+    private final ProductImportService productImportService;
+    // Catalog reads are the same for every caller and readable anonymously, so shared caches may keep them.
+    private final CacheControl catalogCacheControl;
+
+    public ProductControllerImpl(
+            ProductService productService,
+            CatalogVersionService catalogVersionService,
+            ProductImportService productImportService,
+            @Value("${catalog.http.max-age-seconds:30}") long maxAgeSeconds
+    ) {
         this.productService = productService;
+        this.catalogVersionService = catalogVersionService;
+        this.productImportService = productImportService;
+        this.catalogCacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getAllProducts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getAllProducts(limit, after));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest request) {
+        return conditional(request, catalogVersionService.getProductVersion(id), catalogCacheControl,
+                () -> productService.getProductById(id));
     }
 
     @PostMapping
@@ -36,6 +73,14 @@ public class ProductControllerImpl implements ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(product));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        DataFormatEnum format = contentType.toLowerCase().startsWith("text/csv") ? DataFormatEnum.CSV : DataFormatEnum.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductRequestDTO productDetails) {
         return ResponseEntity.ok(productService.updateProduct(id, productDetails));
@@ -54,39 +99,58 @@ public class ProductControllerImpl implements ProductController {
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductDTO>> getFeaturedProducts() {
-        List<ProductDTO> featuredProducts = productService.getFeaturedProducts();
+    public ResponseEntity<List<ProductDTO>> getFeaturedProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String window) {
+        List<ProductDTO> featuredProducts = productService.getFeaturedProducts(category, window);
         return ResponseEntity.ok(featuredProducts);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
-        List<ProductDTO> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getProductsByCategory(category, limit, after));
     }
 
     @GetMapping("/recently-viewed")
-    public ResponseEntity<List<ProductDTO>> getRecentlyViewedProducts() {
-        List<ProductDTO> recentlyViewedProducts = productService.getRecentlyViewedProducts();
-        return ResponseEntity.ok(recentlyViewedProducts);
+    public ResponseEntity<CursorPageDTO<RecentlyViewedProductDTO>> getRecentlyViewedProducts(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(productService.getRecentlyViewedProducts(limit, after));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDTO>> searchProductsByName(@RequestParam String partialName) {
-        List<ProductDTO> products = productService.searchProductsByName(partialName);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> searchProductsByName(
+            @RequestParam String partialName,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.searchProductsByName(partialName, limit, after));
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<ProductQueryResultDTO> queryProducts(@ModelAttribute ProductQueryDTO query) {
+        return ResponseEntity.ok(productService.queryProducts(query));
     }
 
     @GetMapping("/recommendations/{id}")
-    public ResponseEntity<List<ProductDTO>> getRecommendations(@PathVariable Long id) {
-        List<ProductDTO> recommendations = productService.getRecommendations(id);
-        return ResponseEntity.ok(recommendations);
+    public ResponseEntity<List<ProductSummaryDTO>> getRecommendations(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getRecommendations(id, limit));
     }
 
     @GetMapping("/{productId}/images")
-    public ResponseEntity<List<ImageDTO>> getImagesByProductId(@PathVariable Long productId) {
-        List<ImageDTO> images = productService.getImagesByProductId(productId);
-        return ResponseEntity.ok(images);
+    public ResponseEntity<List<ImageDTO>> getImagesByProductId(@PathVariable Long productId, WebRequest request) {
+        return conditional(request, catalogVersionService.getProductVersion(productId), catalogCacheControl,
+                () -> productService.getImagesByProductId(productId));
     }
 
     @PostMapping("change/{productId}/images")
@@ -106,6 +170,11 @@ public class ProductControllerImpl implements ProductController {
         return ResponseEntity.ok(productService.toggleFavorite(productId));
     }
 
+    @PatchMapping("/favorites")
+    public ResponseEntity<FavoriteBatchResultDTO> updateFavorites(@RequestBody FavoriteBatchRequestDTO request) {
+        return ResponseEntity.ok(productService.updateFavorites(request));
+    }
+
     @GetMapping("/favorites")
     public ResponseEntity<List<Long>> getFavorite() {
         return ResponseEntity.ok(productService.getFavorites());
@@ -117,6 +186,11 @@ public class ProductControllerImpl implements ProductController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCatalogCacheStats() {
+        return ResponseEntity.ok(productService.getCatalogCacheStats());
+    }
+
 
 
 
@@ -127,26 +201,51 @@ public class ProductControllerImpl implements ProductController {
 
 
     @GetMapping("/price-range")
-    public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByPriceRange(
             @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
-        List<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getProductsByPriceRange(minPrice, maxPrice, limit, after));
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategories(
-            @RequestParam List<String> categories) {
-        return ResponseEntity.ok(productService.getProductsByCategories(categories));
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategories(
+            @RequestParam List<String> categories,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getProductsByCategories(categories, limit, after));
     }
 
     @GetMapping("/in-stock")
-    public ResponseEntity<List<ProductDTO>> getProductsInStock() {
-        return ResponseEntity.ok(productService.getProductsInStock());
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsInStock(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getProductsInStock(limit, after));
     }
 
     @GetMapping("/above-price")
-    public ResponseEntity<List<ProductDTO>> getProductsAbovePrice(@RequestParam Double price) {
-        return ResponseEntity.ok(productService.getProductsAbovePrice(price));
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsAbovePrice(
+            @RequestParam Double price,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return conditional(request, catalogVersionService.getCatalogVersion(), catalogCacheControl,
+                () -> productService.getProductsAbovePrice(price, limit, after));
+    }
+
+    // checkNotModified writes the ETag and Last-Modified headers and compares them with the
+    // request before the body supplier runs, so a 304 never touches the service.
+    private <T> ResponseEntity<T> conditional(WebRequest request, CatalogVersionDTO version, CacheControl cacheControl, Supplier<T> body) {
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
     }
 }
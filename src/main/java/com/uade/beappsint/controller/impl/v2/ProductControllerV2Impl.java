@@ -1,16 +1,27 @@
 package com.uade.beappsint.controller.impl.v2;
 
 import com.uade.beappsint.controller.ProductController;
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -26,12 +37,17 @@ public class ProductControllerV2Impl implements ProductController {
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<ProductImportResultDTO> importProducts(String contentType, InputStream body) {
         return null;
     }
 
     @Override
-    public ResponseEntity<ProductDTO> getProductById(Long id) {
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getAllProducts(Integer limit, String after, WebRequest request) {
+        return null;
+    }
+
+    @Override
+    public ResponseEntity<ProductDTO> getProductById(Long id, WebRequest request) {
         return null;
     }
 
@@ -52,32 +68,37 @@ public class ProductControllerV2Impl implements ProductController {
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> getFeaturedProducts() {
+    public ResponseEntity<List<ProductDTO>> getFeaturedProducts(String category, String window) {
+        return null;
+    }
+
+    @Override
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategory(String category, Integer limit, String after, WebRequest request) {
         return null;
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(String category) {
+    public ResponseEntity<CursorPageDTO<RecentlyViewedProductDTO>> getRecentlyViewedProducts(Integer limit, String after) {
         return null;
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> getRecentlyViewedProducts() {
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> searchProductsByName(String partialName, Integer limit, String after, WebRequest request) {
         return null;
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> searchProductsByName(String partialName) {
+    public ResponseEntity<ProductQueryResultDTO> queryProducts(ProductQueryDTO query) {
         return null;
     }
 
     @Override
-    public ResponseEntity<List<ProductDTO>> getRecommendations(Long id) {
+    public ResponseEntity<List<ProductSummaryDTO>> getRecommendations(Long id, Integer limit, WebRequest request) {
         return null;
     }
 
     @Override
-    public ResponseEntity<List<ImageDTO>> getImagesByProductId(Long productId) {
+    public ResponseEntity<List<ImageDTO>> getImagesByProductId(Long productId, WebRequest request) {
         return null;
     }
 
@@ -98,11 +119,21 @@ public class ProductControllerV2Impl implements ProductController {
         return null;
     }
 
+    @Override
+    public ResponseEntity<FavoriteBatchResultDTO> updateFavorites(FavoriteBatchRequestDTO request) {
+        return null;
+    }
+
     @Override
     public ResponseEntity<Void> removeProductSecondaryImages(Long productId) {
         return null;
     }
 
+    @Override
+    public ResponseEntity<List<CacheStatsDTO>> getCatalogCacheStats() {
+        return null;
+    }
+
 
 
 
@@ -113,26 +144,39 @@ public class ProductControllerV2Impl implements ProductController {
 
 
     @GetMapping("/price-range")
-    public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByPriceRange(
             @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
-        List<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
+            @RequestParam Double maxPrice,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        CursorPageDTO<ProductSummaryDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice, limit, after);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategories(
-            @RequestParam List<String> categories) {
-        return ResponseEntity.ok(productService.getProductsByCategories(categories));
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsByCategories(
+            @RequestParam List<String> categories,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return ResponseEntity.ok(productService.getProductsByCategories(categories, limit, after));
     }
 
     @GetMapping("/in-stock")
-    public ResponseEntity<List<ProductDTO>> getProductsInStock() {
-        return ResponseEntity.ok(productService.getProductsInStock());
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsInStock(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return ResponseEntity.ok(productService.getProductsInStock(limit, after));
     }
 
     @GetMapping("/above-price")
-    public ResponseEntity<List<ProductDTO>> getProductsAbovePrice(@RequestParam Double price) {
-        return ResponseEntity.ok(productService.getProductsAbovePrice(price));
+    public ResponseEntity<CursorPageDTO<ProductSummaryDTO>> getProductsAbovePrice(
+            @RequestParam Double price,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        return ResponseEntity.ok(productService.getProductsAbovePrice(price, limit, after));
     }
 }
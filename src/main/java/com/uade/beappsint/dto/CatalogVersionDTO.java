@@ -0,0 +1,19 @@
+package com.uade.beappsint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Validators of a catalog resource: a strong ETag and the last modification time in epoch
+ * milliseconds.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogVersionDTO {
+    private String etag;
+    private long lastModified;
+}
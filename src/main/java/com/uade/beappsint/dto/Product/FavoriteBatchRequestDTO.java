@@ -0,0 +1,17 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FavoriteBatchRequestDTO {
+    private List<Long> add;
+    private List<Long> remove;
+}
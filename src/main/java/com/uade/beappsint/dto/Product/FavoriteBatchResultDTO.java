@@ -0,0 +1,18 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FavoriteBatchResultDTO {
+    private int added;
+    private int removed;
+    private List<Long> favorites;
+}
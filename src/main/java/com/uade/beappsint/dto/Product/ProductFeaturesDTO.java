@@ -0,0 +1,20 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Attributes used to find similar products: category, release year and director.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFeaturesDTO {
+    private Long id;
+    private String category;
+    private int year;
+    private String director;
+}
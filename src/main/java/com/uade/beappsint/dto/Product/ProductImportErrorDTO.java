@@ -0,0 +1,15 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportErrorDTO {
+    private long row;
+    private String message;
+}
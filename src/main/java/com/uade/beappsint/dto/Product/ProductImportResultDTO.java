@@ -0,0 +1,24 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 without the CSV header. Only the first
+ * errors are listed; {@code errorsTruncated} tells whether more rows failed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportResultDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ProductImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
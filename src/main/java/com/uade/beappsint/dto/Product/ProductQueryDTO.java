@@ -0,0 +1,32 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters, sort and cursor of the faceted product query. Every filter is optional and they
+ * are combined with AND.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductQueryDTO {
+    private List<String> categories;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minYear;
+    private Integer maxYear;
+    private Integer decade;
+    private String director;
+    private Boolean inStock;
+    private String text;
+    private String sort;
+    private String direction;
+    private Integer limit;
+    private String after;
+}
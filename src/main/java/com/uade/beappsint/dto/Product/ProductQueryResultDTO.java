@@ -0,0 +1,25 @@
+package com.uade.beappsint.dto.Product;
+
+import com.uade.beappsint.dto.CursorPageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the faceted product query. Each facet counts the products matching every
+ * filter except its own, so the client can show how many results the other options have.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductQueryResultDTO {
+    private CursorPageDTO<ProductSummaryDTO> page;
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> decades;
+    // True when the text matched more products than the query considers; page and facets then cover the best matches only.
+    private boolean truncated;
+}
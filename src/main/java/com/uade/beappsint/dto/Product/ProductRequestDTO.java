@@ -14,4 +14,6 @@ public class ProductRequestDTO {
     private String imageUrl;
     private Integer year;
     private String director;
+    // Required on updates: the version the edit was based on; a newer product version rejects the update.
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Text fields of a product that are fed into the in-memory search index.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchDocumentDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private String director;
+    private String category;
+}
@@ -0,0 +1,27 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Slim product row used by the catalog list endpoints. It is projected straight from the
+ * product table (plus the creator email) so no entity graph gets loaded.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSummaryDTO {
+    private Long id;
+    private String name;
+    private double price;
+    private int stock;
+    private String category;
+    private String imageUrl;
+    private int year;
+    private String director;
+    private String createdByEmail;
+    private int views;
+}
@@ -0,0 +1,23 @@
+package com.uade.beappsint.dto.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecentlyViewedProductDTO {
+    private ProductSummaryDTO product;
+    private Instant viewedAt;
+
+    // Used by the JPQL constructor expression of the paged read.
+    public RecentlyViewedProductDTO(Long id, String name, double price, int stock, String category, String imageUrl,
+                                    int year, String director, String createdByEmail, int views, Instant viewedAt) {
+        this(new ProductSummaryDTO(id, name, price, stock, category, imageUrl, year, director, createdByEmail, views), viewedAt);
+    }
+}
@@ -20,5 +20,6 @@ public class ProductDTO {
     private int year;
     private String director;
     private String createdByEmail;
+    private long version;
 }
 
@@ -0,0 +1,22 @@
+package com.uade.beappsint.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthMetricsDTO {
+    private long logins;
+    private long failedLogins;
+    private long refreshes;
+    private long failedRefreshes;
+    private long reusedRefreshTokens;
+    private PasswordHashingStatsDTO passwordHashing;
+    private Map<String, Long> rateLimitRejections;
+}
@@ -2,13 +2,18 @@ package com.uade.beappsint.dto.auth;
 
 import com.uade.beappsint.enums.KycStatusEnum;
 import com.uade.beappsint.enums.ThemeEnum;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class CustomerInfoDTO {
     private Integer id;
 
@@ -21,6 +26,7 @@ public class CustomerInfoDTO {
     private KycStatusEnum kycStatus;
     private ThemeEnum theme;
     private Boolean verified;
+    private Instant createdAt;
 
     // Residential Info
     private String streetName;
@@ -0,0 +1,44 @@
+package com.uade.beappsint.dto.auth;
+
+import com.uade.beappsint.enums.KycStatusEnum;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable authenticated user kept in the security context, cacheable across requests.
+ */
+@Value
+public class CustomerPrincipalDTO implements UserDetails {
+    Integer id;
+    String email;
+    boolean admin;
+    KycStatusEnum kycStatus;
+    long securityStamp;
+
+    public CustomerPrincipalDTO(Integer id, String email, boolean admin, KycStatusEnum kycStatus, Long securityStamp) {
+        this.id = id;
+        this.email = email;
+        this.admin = admin;
+        this.kycStatus = kycStatus;
+        this.securityStamp = securityStamp == null ? 0 : securityStamp;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
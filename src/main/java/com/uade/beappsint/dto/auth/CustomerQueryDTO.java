@@ -0,0 +1,31 @@
+package com.uade.beappsint.dto.auth;
+
+import com.uade.beappsint.enums.KycStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters and cursor of the admin customer directory. Every filter is optional and they are
+ * combined with AND; the created dates are inclusive and read as UTC days.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerQueryDTO {
+    private String emailPrefix;
+    private Boolean admin;
+    private KycStatusEnum kycStatus;
+    private Boolean verified;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+    private Integer limit;
+    private String after;
+}
@@ -8,4 +8,6 @@ import lombok.Data;
 public class LoginResponseDTO {
     private String token;
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
 }
@@ -0,0 +1,23 @@
+package com.uade.beappsint.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PasswordHashingStatsDTO {
+    private int strength;
+    private int poolSize;
+    private int activeThreads;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completedTasks;
+    private long rejectedTasks;
+    private double averageWaitMillis;
+    private double averageRunMillis;
+    private long maxRunMillis;
+}
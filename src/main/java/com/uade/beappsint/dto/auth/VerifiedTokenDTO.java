@@ -0,0 +1,26 @@
+package com.uade.beappsint.dto.auth;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Immutable view of a token whose signature was checked once. The claims are copied out of the
+ * parsed {@code Claims}, so the view can be shared between requests presenting the same token.
+ */
+@Value
+public class VerifiedTokenDTO {
+    String subject;
+    long issuedAt;
+    long expiresAt;
+    Map<String, Object> claims;
+
+    public <T> T getClaim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,16 @@
+package com.uade.beappsint.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchRequestDTO {
+    private List<CartOperationDTO> operations;
+}
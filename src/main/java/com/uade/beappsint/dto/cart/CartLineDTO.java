@@ -0,0 +1,22 @@
+package com.uade.beappsint.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stored cart item with its product price and the cart version, or only the cart for an empty cart.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartLineDTO {
+    private Long cartId;
+    private Long itemId;
+    private Integer quantity;
+    private Long productId;
+    private Double price;
+    private Long cartVersion;
+}
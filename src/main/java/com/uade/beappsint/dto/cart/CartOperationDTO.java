@@ -0,0 +1,17 @@
+package com.uade.beappsint.dto.cart;
+
+import com.uade.beappsint.enums.CartOperationTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartOperationDTO {
+    private CartOperationTypeEnum type;
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,15 @@
+package com.uade.beappsint.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartSummaryDTO {
+    private long quantity;
+    private double totalPrice;
+}
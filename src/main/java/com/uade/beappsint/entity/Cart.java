@@ -1,13 +1,11 @@
 package com.uade.beappsint.entity;
 
-import com.uade.beappsint.dto.ProductDTO;
-import com.uade.beappsint.dto.cart.CartDTO;
-import com.uade.beappsint.dto.cart.CartItemDTO;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,25 +26,15 @@ public class Cart {
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private Customer customer;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> cartItems = new ArrayList<>();
 
     @Column(name = "total_price", nullable = false)
     private double totalPrice;
 
-    public CartDTO toDTO() {
-        int quantity = 0;
-        List<CartItemDTO> mappedCartItems = new ArrayList<>();
-        for (CartItem cartItem: cartItems) {
-            mappedCartItems.add(cartItem.toDTO());
-            quantity += cartItem.getQuantity();
-        }
-
-        return CartDTO.builder()
-                .id(this.id)
-                .cartItems(mappedCartItems)
-                .totalPrice(this.totalPrice)
-                .quantity(quantity)
-                .build();
-    }
+    // Every write of the cart store bumps it, so a node holding an older copy cannot write over a newer one.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
 }
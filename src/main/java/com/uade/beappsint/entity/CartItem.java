@@ -1,6 +1,5 @@
 package com.uade.beappsint.entity;
 
-import com.uade.beappsint.dto.cart.CartItemDTO;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -24,12 +23,4 @@ public class CartItem {
     private Product product;
 
     private int quantity;
-
-    public CartItemDTO toDTO() {
-        return CartItemDTO.builder()
-                .id(this.id)
-                .product(this.product.toDTO())
-                .quantity(this.quantity)
-                .build();
-    }
 }
@@ -3,6 +3,7 @@ package com.uade.beappsint.entity;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
 import com.uade.beappsint.enums.KycStatusEnum;
 import com.uade.beappsint.enums.ThemeEnum;
+import com.uade.beappsint.event.CustomerEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,12 +12,20 @@ import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "customer")
+@Table(name = "customer", indexes = {
+        @Index(name = "idx_customer_email", columnList = "email"),
+        @Index(name = "idx_customer_admin_id", columnList = "is_admin, id"),
+        @Index(name = "idx_customer_kyc_status_id", columnList = "kyc_status, id"),
+        @Index(name = "idx_customer_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_customer_versions_changed_at", columnList = "versions_changed_at")
+})
+@EntityListeners(CustomerEntityListener.class)
 @Data
 @AllArgsConstructor @NoArgsConstructor
 @Builder
@@ -64,19 +73,28 @@ public class Customer implements UserDetails {
     @Column(name = "is-enabled")
     private Boolean isEnabled;
 
-    @Column(name = "verification_code")
-    private String verificationCode;
-
     @Column(name = "verified")
     private Boolean verified;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-            name = "customer_recently_viewed",
-            joinColumns = @JoinColumn(name = "customer_id"),
-            inverseJoinColumns = @JoinColumn(name = "product_id")
-    )
-    private List<Product> recentlyViewedProducts;
+    // Null for the customers registered before the column existed.
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    // Bumped whenever a change must invalidate what was issued for the customer (admin flag, password, deletion).
+    @Column(name = "security_stamp")
+    private Long securityStamp;
+
+    // Bumped when a claim carried by the access token changes (admin flag, KYC status), so older tokens get refreshed.
+    @Column(name = "claims_version")
+    private Long claimsVersion;
+
+    // When the stamp or the claims version last moved, so the token deny list only reads recent changes.
+    @Column(name = "versions_changed_at")
+    private Instant versionsChangedAt;
+
+    // Email the row was read with, so a changed email also drops the principal cached under the old one.
+    @Transient
+    private String loadedEmail;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -108,13 +126,15 @@ public class Customer implements UserDetails {
         return true;
     }
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-            name = "customer_favorite_products",
-            joinColumns = @JoinColumn(name = "customer_id"),
-            inverseJoinColumns = @JoinColumn(name = "product_id")
-    )
-    private List<Product> favoriteProducts;
+    public void rotateSecurityStamp() {
+        securityStamp = securityStamp == null ? 1 : securityStamp + 1;
+        versionsChangedAt = Instant.now();
+    }
+
+    public void bumpClaimsVersion() {
+        claimsVersion = claimsVersion == null ? 1 : claimsVersion + 1;
+        versionsChangedAt = Instant.now();
+    }
 
     public Boolean getIsEnabled() {
         return isEnabled == null || isEnabled;
@@ -135,6 +155,7 @@ public class Customer implements UserDetails {
                 .kycStatus(this.kycStatus)
                 .theme(this.theme)
                 .verified(this.verified)
+                .createdAt(this.createdAt)
                 .build();
     }
 }
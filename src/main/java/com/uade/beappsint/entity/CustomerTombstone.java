@@ -0,0 +1,30 @@
+package com.uade.beappsint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marks a deleted customer for as long as a token issued before the deletion can be alive, so
+ * every node can deny those tokens after the customer row is gone.
+ */
+@Entity
+@Table(name = "customer_tombstone", indexes = {
+        @Index(name = "idx_customer_tombstone_deleted_at", columnList = "deleted_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerTombstone {
+    @Id
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
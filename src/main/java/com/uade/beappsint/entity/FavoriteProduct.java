@@ -0,0 +1,40 @@
+package com.uade.beappsint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One row of the customer favorites. The unique key on (customer_id, product_id) makes the
+ * favorites a set and covers the per-customer id reads.
+ */
+@Entity
+@Table(name = "customer_favorite_products",
+        uniqueConstraints = @UniqueConstraint(name = "uk_customer_favorite_product", columnNames = {"customer_id", "product_id"}),
+        indexes = @Index(name = "idx_customer_favorite_product", columnList = "product_id"))
+@IdClass(FavoriteProduct.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FavoriteProduct {
+    @Id
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Integer customerId;
+        private Long productId;
+    }
+}
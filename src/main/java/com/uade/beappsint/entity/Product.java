@@ -6,12 +6,21 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = {
+        @Index(name = "idx_product_category_id", columnList = "category, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_stock_id", columnList = "stock, id"),
+        @Index(name = "idx_product_year_id", columnList = "year, id"),
+        @Index(name = "idx_product_views_id", columnList = "views, id"),
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_director", columnList = "director")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -39,7 +48,8 @@ public class Product {
     @Column(name = "image_url")
     private String imageUrl;
 
-    @Column(name = "views")
+    // Written only by the view counter flush, so a full-row save cannot roll the count back.
+    @Column(name = "views", updatable = false)
     private int views;
 
     @Column(name = "year")
@@ -52,6 +62,12 @@ public class Product {
     @JoinColumn(name = "created_by")
     private Customer createdBy;
 
+    // Stock decrements bump it too, so an edit based on an older read fails instead of restoring the old stock.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Image> images;
 
@@ -66,7 +82,8 @@ public class Product {
                 .imageUrl(this.imageUrl)
                 .year(this.year)
                 .director(this.director)
-                .createdByEmail(this.createdBy.getEmail())
+                .createdByEmail(this.createdBy != null ? this.createdBy.getEmail() : null)
+                .version(this.version)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.uade.beappsint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One product in the recently viewed history of a customer. Only the newest few rows per customer
+ * are kept; the index on (customer_id, viewed_at) serves both the trimming and the paged read.
+ */
+@Entity
+@Table(name = "recently_viewed_product", indexes = {
+        @Index(name = "idx_recently_viewed_customer_viewed_at", columnList = "customer_id, viewed_at"),
+        @Index(name = "idx_recently_viewed_product", columnList = "product_id")
+})
+@IdClass(RecentlyViewedProduct.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecentlyViewedProduct {
+    @Id
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "viewed_at", nullable = false)
+    private Instant viewedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Integer customerId;
+        private Long productId;
+    }
+}
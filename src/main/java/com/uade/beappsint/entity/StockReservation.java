@@ -0,0 +1,46 @@
+package com.uade.beappsint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Durable copy of one cart hold, read back to rebuild the in-memory ledger after a restart.
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at")
+})
+@IdClass(StockReservation.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockReservation {
+    @Id
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Integer customerId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.uade.beappsint.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The pending email verification code of a customer. There is at most one row per customer and
+ * codes are only compared against that row, so they do not need to be unique across customers.
+ */
+@Entity
+@Table(name = "verification_code", indexes = {
+        @Index(name = "idx_verification_code_expires_at", columnList = "expires_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VerificationCode {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false, unique = true)
+    private Integer customerId;
+
+    @Column(name = "code", nullable = false, length = 6)
+    private String code;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "failed_attempts", nullable = false)
+    private int failedAttempts;
+}
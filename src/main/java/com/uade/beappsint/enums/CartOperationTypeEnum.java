@@ -0,0 +1,7 @@
+package com.uade.beappsint.enums;
+
+public enum CartOperationTypeEnum {
+    ADD,
+    REMOVE,
+    SET_QUANTITY
+}
@@ -0,0 +1,7 @@
+package com.uade.beappsint.enums;
+
+public enum ExportResourceEnum {
+    PRODUCTS,
+    CUSTOMERS,
+    TRANSACTIONS
+}
@@ -0,0 +1,6 @@
+package com.uade.beappsint.enums;
+
+public enum ProductActivityTypeEnum {
+    VIEW,
+    PURCHASE
+}
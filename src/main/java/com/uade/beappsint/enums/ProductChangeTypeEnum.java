@@ -0,0 +1,10 @@
+package com.uade.beappsint.enums;
+
+public enum ProductChangeTypeEnum {
+    CREATED,
+    UPDATED,
+    DELETED,
+    IMAGES_CHANGED,
+    STOCK_CHANGED,
+    IMPORTED
+}
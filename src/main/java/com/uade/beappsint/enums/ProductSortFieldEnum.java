@@ -0,0 +1,20 @@
+package com.uade.beappsint.enums;
+
+public enum ProductSortFieldEnum {
+    ID("id"),
+    PRICE("price"),
+    YEAR("year"),
+    // Views keep growing while a client pages, so a product can cross the cursor and be skipped or repeated.
+    VIEWS("views"),
+    NAME("name");
+
+    private final String property;
+
+    ProductSortFieldEnum(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
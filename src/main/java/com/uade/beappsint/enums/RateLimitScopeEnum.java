@@ -0,0 +1,33 @@
+package com.uade.beappsint.enums;
+
+/**
+ * Buckets of the authentication rate limiter, configured under {@code security.rate-limit.<key>}.
+ */
+public enum RateLimitScopeEnum {
+    LOGIN_IP("login-ip", 20, 20),
+    LOGIN_EMAIL("login-email", 5, 5),
+    SIGNUP_IP("signup-ip", 5, 2),
+    SIGNUP_EMAIL("signup-email", 3, 1);
+
+    private final String key;
+    private final long defaultCapacity;
+    private final long defaultRefillPerMinute;
+
+    RateLimitScopeEnum(String key, long defaultCapacity, long defaultRefillPerMinute) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerMinute = defaultRefillPerMinute;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public long getDefaultRefillPerMinute() {
+        return defaultRefillPerMinute;
+    }
+}
@@ -0,0 +1,23 @@
+package com.uade.beappsint.enums;
+
+import java.time.Duration;
+
+/**
+ * Time windows for the trending ranking. Each one is the half-life of the exponential decay
+ * applied to views and purchases.
+ */
+public enum TrendingWindowEnum {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+
+    private final Duration halfLife;
+
+    TrendingWindowEnum(Duration halfLife) {
+        this.halfLife = halfLife;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+}
@@ -0,0 +1,22 @@
+package com.uade.beappsint.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Published when a customer row is updated or deleted, so cached principals can be dropped and
+ * revoked token versions recorded. {@code previousEmail} is the email the row was read with.
+ */
+@Data
+@AllArgsConstructor
+public class CustomerChangedEvent {
+    private Integer customerId;
+    private String email;
+    private String previousEmail;
+    private Long securityStamp;
+    private Long claimsVersion;
+    private Instant versionsChangedAt;
+    private boolean deleted;
+}
@@ -0,0 +1,38 @@
+package com.uade.beappsint.event;
+
+import com.uade.beappsint.entity.Customer;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener that publishes every customer update or removal, so no service can forget to.
+ */
+public class CustomerEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CustomerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void onCustomerLoaded(Customer customer) {
+        customer.setLoadedEmail(customer.getEmail());
+    }
+
+    @PostUpdate
+    public void onCustomerUpdated(Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(), customer.getEmail(), customer.getLoadedEmail(),
+                customer.getSecurityStamp(), customer.getClaimsVersion(), customer.getVersionsChangedAt(), false));
+        customer.setLoadedEmail(customer.getEmail());
+    }
+
+    @PostRemove
+    public void onCustomerRemoved(Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(), customer.getEmail(), customer.getLoadedEmail(),
+                customer.getSecurityStamp(), customer.getClaimsVersion(), customer.getVersionsChangedAt(), true));
+    }
+}
@@ -0,0 +1,17 @@
+package com.uade.beappsint.event;
+
+import com.uade.beappsint.enums.ProductActivityTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a customer views or buys a product. Feeds the trending ranking.
+ */
+@Data
+@AllArgsConstructor
+public class ProductActivityEvent {
+    private Long productId;
+    private String category;
+    private ProductActivityTypeEnum type;
+    private int quantity;
+}
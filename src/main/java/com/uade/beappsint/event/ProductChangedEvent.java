@@ -0,0 +1,19 @@
+package com.uade.beappsint.event;
+
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * Published whenever a product is created, modified or removed; listeners react once it commits.
+ */
+@Data
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private Long productId;
+    private ProductChangeTypeEnum type;
+    // Categories affected by the change: the old and the new one when a product is moved.
+    private Set<String> categories;
+}
@@ -2,6 +2,7 @@ package com.uade.beappsint.exception;
 
 import com.uade.beappsint.dto.ErrorResponseDTO;
 import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -47,6 +48,17 @@ public class RestResponseEntityExceptionHandler
                 new HttpHeaders(), HttpStatus.CONFLICT, request);
     }
 
+    @ExceptionHandler(value
+            = {OptimisticLockingFailureException.class})
+    protected ResponseEntity<Object> handleOptimisticLockingFailure(
+            RuntimeException ex, WebRequest request) {
+        ErrorResponseDTO bodyOfResponse = ErrorResponseDTO.builder()
+                .error("The resource was modified concurrently. Reload it and try again.")
+                .build();
+        return handleExceptionInternal(ex, bodyOfResponse,
+                new HttpHeaders(), HttpStatus.CONFLICT, request);
+    }
+
     @ExceptionHandler(value
             = {BadRequestException.class})
     protected ResponseEntity<Object> handleBadRequest(
@@ -57,4 +69,30 @@ public class RestResponseEntityExceptionHandler
         return handleExceptionInternal(ex, bodyOfResponse,
                 new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(value
+            = {ServiceUnavailableException.class})
+    protected ResponseEntity<Object> handleServiceUnavailable(
+            ServiceUnavailableException ex, WebRequest request) {
+        ErrorResponseDTO bodyOfResponse = ErrorResponseDTO.builder()
+                .error(ex.getMessage())
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return handleExceptionInternal(ex, bodyOfResponse,
+                headers, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    @ExceptionHandler(value
+            = {TooManyRequestsException.class})
+    protected ResponseEntity<Object> handleTooManyRequests(
+            TooManyRequestsException ex, WebRequest request) {
+        ErrorResponseDTO bodyOfResponse = ErrorResponseDTO.builder()
+                .error(ex.getMessage())
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return handleExceptionInternal(ex, bodyOfResponse,
+                headers, HttpStatus.TOO_MANY_REQUESTS, request);
+    }
+}
@@ -0,0 +1,20 @@
+package com.uade.beappsint.exception;
+
+import org.hibernate.HibernateException;
+
+public class TooManyRequestsException extends HibernateException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getMessage() {
+        return super.getMessage();
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
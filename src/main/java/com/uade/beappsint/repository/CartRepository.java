@@ -1,12 +1,25 @@
 package com.uade.beappsint.repository;
 
+import com.uade.beappsint.dto.cart.CartLineDTO;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
 import com.uade.beappsint.entity.Cart;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends CrudRepository<Cart, Long> {
     Optional<Cart> findByCustomerId(Integer customerId);
+
+    @Query("SELECT new com.uade.beappsint.dto.cart.CartLineDTO(c.id, i.id, i.quantity, p.id, p.price, c.version) " +
+            "FROM Cart c LEFT JOIN c.cartItems i LEFT JOIN i.product p WHERE c.customer.id = :customerId ORDER BY i.id")
+    List<CartLineDTO> findLinesByCustomerId(@Param("customerId") Integer customerId);
+
+    @Query("SELECT new com.uade.beappsint.dto.cart.CartSummaryDTO(COALESCE(SUM(i.quantity), 0), c.totalPrice) " +
+            "FROM Cart c LEFT JOIN c.cartItems i WHERE c.customer.id = :customerId GROUP BY c.id, c.totalPrice")
+    Optional<CartSummaryDTO> findSummaryByCustomerId(@Param("customerId") Integer customerId);
 }
@@ -0,0 +1,13 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
+
+import java.util.List;
+
+/**
+ * Queries built at runtime from the optional filters of {@link CustomerQueryDTO}.
+ */
+public interface CustomerQueryRepository {
+    List<CustomerInfoDTO> findDirectoryPage(CustomerQueryDTO query, Integer afterId, int limit);
+}
@@ -0,0 +1,65 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Builds the customer directory JPQL from the filters that are present, selecting plain columns only.
+ */
+public class CustomerQueryRepositoryImpl implements CustomerQueryRepository {
+    private static final String DIRECTORY_SELECT = "SELECT new com.uade.beappsint.dto.auth.CustomerInfoDTO(" +
+            "c.id, c.email, c.firstname, c.lastname, c.dateOfBirth, c.isAdmin, c.kycStatus, c.theme, c.verified, c.createdAt, " +
+            "c.streetName, c.streetNumber, c.complementaryAddress, c.phoneNumber) FROM Customer c ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<CustomerInfoDTO> findDirectoryPage(CustomerQueryDTO query, Integer afterId, int limit) {
+        List<String> clauses = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        clauses.add("(c.isEnabled IS NULL OR c.isEnabled = true)");
+        if (query.getEmailPrefix() != null && !query.getEmailPrefix().isBlank()) {
+            clauses.add("c.email LIKE :emailPrefix ESCAPE '\\'");
+            params.put("emailPrefix", escapeLike(query.getEmailPrefix().trim()) + "%");
+        }
+        if (query.getAdmin() != null) {
+            clauses.add("c.isAdmin = :admin");
+            params.put("admin", query.getAdmin());
+        }
+        if (query.getKycStatus() != null) {
+            clauses.add("c.kycStatus = :kycStatus");
+            params.put("kycStatus", query.getKycStatus());
+        }
+        if (query.getVerified() != null) {
+            clauses.add(query.getVerified() ? "c.verified = true" : "(c.verified IS NULL OR c.verified = false)");
+        }
+        if (query.getCreatedFrom() != null) {
+            clauses.add("c.createdAt >= :createdFrom");
+            params.put("createdFrom", query.getCreatedFrom().atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        if (query.getCreatedTo() != null) {
+            clauses.add("c.createdAt < :createdBefore");
+            params.put("createdBefore", query.getCreatedTo().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        if (afterId != null) {
+            clauses.add("c.id > :afterId");
+            params.put("afterId", afterId);
+        }
+
+        TypedQuery<CustomerInfoDTO> typed = entityManager.createQuery(
+                DIRECTORY_SELECT + "WHERE " + String.join(" AND ", clauses) + " ORDER BY c.id", CustomerInfoDTO.class);
+        params.forEach(typed::setParameter);
+        return typed.setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
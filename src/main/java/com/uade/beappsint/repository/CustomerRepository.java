@@ -1,29 +1,27 @@
 package com.uade.beappsint.repository;
 
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 import com.uade.beappsint.entity.Customer;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import com.uade.beappsint.entity.Product;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends CrudRepository<Customer, Integer> {
+public interface CustomerRepository extends JpaRepository<Customer, Integer>, CustomerQueryRepository {
     Optional<Customer> findByEmail(String email);
-    Boolean existsByEmail(String email);
 
-    @Modifying
-    @Transactional
-    @Query(value = "INSERT INTO customer_favorite_products (customer_id, product_id) VALUES (:customerId, :productId)", nativeQuery = true)
-    int addFavoriteProduct(@Param("customerId") Integer customerId, @Param("productId") Long productId);
+    @Query("SELECT new com.uade.beappsint.dto.auth.CustomerPrincipalDTO(c.id, c.email, c.isAdmin, c.kycStatus, c.securityStamp) " +
+            "FROM Customer c WHERE c.email = :email")
+    Optional<CustomerPrincipalDTO> findPrincipalByEmail(@Param("email") String email);
 
-    @Query("SELECT c.favoriteProducts FROM Customer c WHERE c.id = :customerId")
-    List<Product> findFavoriteProductsByCustomerId(Integer customerId);
+    // Only the customers whose stamp or claims version moved after the given time, read through its index.
+    @Query("SELECT c.id, c.securityStamp, c.claimsVersion, c.versionsChangedAt FROM Customer c WHERE c.versionsChangedAt > :after")
+    List<Object[]> findRevocationVersionsChangedAfter(@Param("after") Instant after);
 
-    Optional<Customer> findByVerificationCode(String verificationCode);
+    Boolean existsByEmail(String email);
 }
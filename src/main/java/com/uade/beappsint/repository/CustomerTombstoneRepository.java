@@ -0,0 +1,22 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.entity.CustomerTombstone;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CustomerTombstoneRepository extends CrudRepository<CustomerTombstone, Integer> {
+    List<CustomerTombstone> findByDeletedAtAfter(Instant after);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CustomerTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,45 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.entity.FavoriteProduct;
+import com.uade.beappsint.entity.Product;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FavoriteProductRepository extends CrudRepository<FavoriteProduct, FavoriteProduct.Key> {
+    // Inserting from the product table skips unknown products, and IGNORE skips existing favorites,
+    // so the result is the number of favorites actually added.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO customer_favorite_products (customer_id, product_id) " +
+            "SELECT :customerId, p.id FROM product p WHERE p.id IN (:productIds)", nativeQuery = true)
+    int insertAll(@Param("customerId") Integer customerId, @Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FavoriteProduct f WHERE f.customerId = :customerId AND f.productId IN (:productIds)")
+    int deleteAll(@Param("customerId") Integer customerId, @Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT f.productId FROM FavoriteProduct f WHERE f.customerId = :customerId ORDER BY f.productId")
+    List<Long> findProductIdsByCustomerId(@Param("customerId") Integer customerId);
+
+    @Query("SELECT p FROM FavoriteProduct f JOIN Product p ON p.id = f.productId WHERE f.customerId = :customerId ORDER BY p.id")
+    List<Product> findProductsByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FavoriteProduct f WHERE f.customerId = :customerId")
+    int deleteAllByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FavoriteProduct f WHERE f.productId = :productId")
+    int deleteAllByProductId(@Param("productId") Long productId);
+}
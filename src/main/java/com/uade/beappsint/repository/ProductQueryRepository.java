@@ -0,0 +1,22 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.dto.Product.FacetCountDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.enums.ProductSortFieldEnum;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries built at runtime from the optional filters of {@link ProductQueryDTO}. A null
+ * {@code textIds} means there is no text filter; otherwise only those products match.
+ */
+public interface ProductQueryRepository {
+    List<ProductSummaryDTO> findSummaries(ProductQueryDTO query, Collection<Long> textIds, ProductSortFieldEnum sort,
+                                          boolean descending, Object afterValue, Long afterId, int limit);
+
+    List<FacetCountDTO> countByCategory(ProductQueryDTO query, Collection<Long> textIds);
+
+    List<FacetCountDTO> countByDecade(ProductQueryDTO query, Collection<Long> textIds);
+}
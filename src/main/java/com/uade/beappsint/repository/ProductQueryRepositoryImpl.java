@@ -0,0 +1,116 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.dto.Product.FacetCountDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.enums.ProductSortFieldEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.*;
+
+/**
+ * Builds the product query JPQL from the filters that are present, keeping every condition index-friendly.
+ */
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+    private static final String DECADE = "(p.year - MOD(p.year, 10))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<ProductSummaryDTO> findSummaries(ProductQueryDTO query, Collection<Long> textIds, ProductSortFieldEnum sort,
+                                                 boolean descending, Object afterValue, Long afterId, int limit) {
+        Filter filter = filter(query, textIds, true, true);
+        String property = "p." + sort.getProperty();
+        String comparator = descending ? " < " : " > ";
+        String direction = descending ? " DESC" : " ASC";
+
+        if (afterId != null) {
+            filter.param("afterId", afterId);
+            if (sort == ProductSortFieldEnum.ID) {
+                filter.clause("p.id" + comparator + ":afterId");
+            } else {
+                filter.param("afterValue", afterValue);
+                filter.clause("(" + property + comparator + ":afterValue OR (" + property + " = :afterValue AND p.id" + comparator + ":afterId))");
+            }
+        }
+
+        String orderBy = " ORDER BY " + (sort == ProductSortFieldEnum.ID ? "" : property + direction + ", ") + "p.id" + direction;
+        TypedQuery<ProductSummaryDTO> typed = entityManager.createQuery(
+                ProductRepository.SUMMARY_SELECT + filter.where() + orderBy, ProductSummaryDTO.class);
+        filter.bind(typed);
+        return typed.setMaxResults(limit).getResultList();
+    }
+
+    public List<FacetCountDTO> countByCategory(ProductQueryDTO query, Collection<Long> textIds) {
+        Filter filter = filter(query, textIds, false, true);
+        return counts("SELECT p.category, COUNT(p) FROM Product p " + filter.where()
+                + " GROUP BY p.category ORDER BY p.category", filter);
+    }
+
+    public List<FacetCountDTO> countByDecade(ProductQueryDTO query, Collection<Long> textIds) {
+        Filter filter = filter(query, textIds, true, false);
+        return counts("SELECT " + DECADE + ", COUNT(p) FROM Product p " + filter.where()
+                + " GROUP BY " + DECADE + " ORDER BY " + DECADE, filter);
+    }
+
+    private List<FacetCountDTO> counts(String jpql, Filter filter) {
+        Query query = entityManager.createQuery(jpql);
+        filter.bind(query);
+        List<FacetCountDTO> counts = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            counts.add(new FacetCountDTO(Objects.toString(columns[0], null), ((Number) columns[1]).longValue()));
+        }
+        return counts;
+    }
+
+    private Filter filter(ProductQueryDTO query, Collection<Long> textIds, boolean withCategories, boolean withYears) {
+        Filter filter = new Filter();
+        if (withCategories && query.getCategories() != null && !query.getCategories().isEmpty()) {
+            filter.clause("p.category IN :categories").param("categories", query.getCategories());
+        }
+        if (query.getMinPrice() != null) filter.clause("p.price >= :minPrice").param("minPrice", query.getMinPrice());
+        if (query.getMaxPrice() != null) filter.clause("p.price <= :maxPrice").param("maxPrice", query.getMaxPrice());
+        if (withYears) {
+            if (query.getMinYear() != null) filter.clause("p.year >= :minYear").param("minYear", query.getMinYear());
+            if (query.getMaxYear() != null) filter.clause("p.year <= :maxYear").param("maxYear", query.getMaxYear());
+            if (query.getDecade() != null) {
+                filter.clause("p.year BETWEEN :decadeStart AND :decadeEnd")
+                        .param("decadeStart", query.getDecade())
+                        .param("decadeEnd", query.getDecade() + 9);
+            }
+        }
+        if (query.getDirector() != null && !query.getDirector().isBlank()) {
+            filter.clause("p.director = :director").param("director", query.getDirector().trim());
+        }
+        if (Boolean.TRUE.equals(query.getInStock())) filter.clause("p.stock > 0");
+        if (textIds != null) filter.clause("p.id IN :textIds").param("textIds", textIds);
+        return filter;
+    }
+
+    private static final class Filter {
+        private final List<String> clauses = new ArrayList<>();
+        private final Map<String, Object> params = new HashMap<>();
+
+        Filter clause(String clause) {
+            clauses.add(clause);
+            return this;
+        }
+
+        Filter param(String name, Object value) {
+            params.put(name, value);
+            return this;
+        }
+
+        String where() {
+            return clauses.isEmpty() ? "" : "WHERE " + String.join(" AND ", clauses);
+        }
+
+        void bind(Query query) {
+            params.forEach(query::setParameter);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.uade.beappsint.repository;
 
+import com.uade.beappsint.dto.Product.ProductFeaturesDTO;
+import com.uade.beappsint.dto.Product.ProductSearchDocumentDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
 import com.uade.beappsint.entity.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -8,23 +12,22 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends CrudRepository<Product, Long> {
+public interface ProductRepository extends CrudRepository<Product, Long>, ProductQueryRepository {
+    String SUMMARY_SELECT = "SELECT new com.uade.beappsint.dto.Product.ProductSummaryDTO(" +
+            "p.id, p.name, p.price, p.stock, p.category, p.imageUrl, p.year, p.director, c.email, p.views) " +
+            "FROM Product p LEFT JOIN p.createdBy c ";
+    String SEARCH_DOCUMENT_SELECT = "SELECT new com.uade.beappsint.dto.Product.ProductSearchDocumentDTO(" +
+            "p.id, p.name, p.description, p.director, p.category) FROM Product p ";
+    String FEATURES_SELECT = "SELECT new com.uade.beappsint.dto.Product.ProductFeaturesDTO(" +
+            "p.id, p.category, p.year, p.director) FROM Product p ";
+
     List<Product> findAll();
-    List<Product> findByCategory(String category);
     List<Product> findTop10ByOrderByViewsDesc();
-    List<Product> findByNameContainingIgnoreCase(String partialName);
-
-    @Query("SELECT p FROM Product p WHERE p.category = :category AND p.id <> :excludeProductId")
-    List<Product> findRecommendationsByCategory(@Param("category") String category, @Param("excludeProductId") Long excludeProductId);
-
-    @Query("SELECT p FROM Product p WHERE p.year BETWEEN :startYear AND :endYear AND p.id <> :excludeProductId")
-    List<Product> findRecommendationsByDecade(@Param("startYear") int startYear, @Param("endYear") int endYear, @Param("excludeProductId") Long excludeProductId);
-
-    @Query("SELECT p FROM Product p WHERE p.director = :director AND p.id <> :excludeProductId")
-    List<Product> findRecommendationsByDirector(@Param("director") String director, @Param("excludeProductId") Long excludeProductId);
 
     @Query("SELECT i FROM Image i WHERE i.product.id = ?1")
     List<Image> findImagesByProductId(Long productId);
@@ -34,18 +37,46 @@ public interface ProductRepository extends CrudRepository<Product, Long> {
     @Query("UPDATE Product p SET p.imageUrl = :imageUrl WHERE p.id = :id")
     void addImageToProduct(@Param("imageUrl") String imageUrl, @Param("id") Long id);
 
-    @Modifying
-    @Transactional
-    @Query(value = "DELETE FROM customer_recently_viewed WHERE product_id = :productId", nativeQuery = true)
-    void deleteAllByProductId(@Param("productId") Long productId);
 
 
 
 
 
 
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
-    List<Product> findByCategoryIn(List<String> categories);
-    List<Product> findByStockGreaterThan(Integer stock);
-    List<Product> findByPriceGreaterThan(Double price);
+    @Query(SUMMARY_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findSummaries(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.category = :category AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findSummariesByCategory(@Param("category") String category, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.category IN :categories AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findSummariesByCategoryIn(@Param("categories") List<String> categories, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.stock > 0 AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findSummariesInStock(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice " +
+            "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price, p.id")
+    List<ProductSummaryDTO> findSummariesByPriceBetween(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice,
+                                                        @Param("afterPrice") Double afterPrice, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.price > :price " +
+            "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) ORDER BY p.price, p.id")
+    List<ProductSummaryDTO> findSummariesByPriceGreaterThan(@Param("price") Double price,
+                                                            @Param("afterPrice") Double afterPrice, @Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SEARCH_DOCUMENT_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSearchDocumentDTO> findSearchDocuments(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SEARCH_DOCUMENT_SELECT + "WHERE p.id = :id")
+    Optional<ProductSearchDocumentDTO> findSearchDocumentById(@Param("id") Long id);
+
+    @Query(FEATURES_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductFeaturesDTO> findFeatures(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(FEATURES_SELECT + "WHERE p.id = :id")
+    Optional<ProductFeaturesDTO> findFeaturesById(@Param("id") Long id);
 }
@@ -0,0 +1,52 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
+import com.uade.beappsint.entity.RecentlyViewedProduct;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RecentlyViewedProductRepository extends CrudRepository<RecentlyViewedProduct, RecentlyViewedProduct.Key> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO recently_viewed_product (customer_id, product_id, viewed_at) VALUES (:customerId, :productId, :viewedAt) " +
+            "ON DUPLICATE KEY UPDATE viewed_at = VALUES(viewed_at)", nativeQuery = true)
+    int upsert(@Param("customerId") Integer customerId, @Param("productId") Long productId, @Param("viewedAt") Instant viewedAt);
+
+    // Deletes every row past the newest :keep of the customer. The derived table lets MySQL read
+    // the table it is deleting from.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE r FROM recently_viewed_product r " +
+            "JOIN (SELECT product_id FROM recently_viewed_product WHERE customer_id = :customerId " +
+            "ORDER BY viewed_at DESC, product_id DESC LIMIT 18446744073709551615 OFFSET :keep) old " +
+            "ON old.product_id = r.product_id WHERE r.customer_id = :customerId", nativeQuery = true)
+    int trim(@Param("customerId") Integer customerId, @Param("keep") int keep);
+
+    @Query("SELECT new com.uade.beappsint.dto.Product.RecentlyViewedProductDTO(" +
+            "p.id, p.name, p.price, p.stock, p.category, p.imageUrl, p.year, p.director, c.email, p.views, r.viewedAt) " +
+            "FROM RecentlyViewedProduct r JOIN Product p ON p.id = r.productId LEFT JOIN p.createdBy c " +
+            "WHERE r.customerId = :customerId " +
+            "AND (r.viewedAt < :afterViewedAt OR (r.viewedAt = :afterViewedAt AND r.productId < :afterId)) " +
+            "ORDER BY r.viewedAt DESC, r.productId DESC")
+    List<RecentlyViewedProductDTO> findPage(@Param("customerId") Integer customerId, @Param("afterViewedAt") Instant afterViewedAt,
+                                            @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RecentlyViewedProduct r WHERE r.customerId = :customerId")
+    int deleteAllByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RecentlyViewedProduct r WHERE r.productId = :productId")
+    int deleteAllByProductId(@Param("productId") Long productId);
+}
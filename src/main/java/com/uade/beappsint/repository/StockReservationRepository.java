@@ -0,0 +1,41 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.entity.StockReservation;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends CrudRepository<StockReservation, StockReservation.Key> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stock_reservation (customer_id, product_id, quantity, expires_at) " +
+            "VALUES (:customerId, :productId, :quantity, :expiresAt) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), expires_at = VALUES(expires_at)", nativeQuery = true)
+    int upsert(@Param("customerId") Integer customerId, @Param("productId") Long productId,
+               @Param("quantity") int quantity, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockReservation r WHERE r.customerId = :customerId AND r.productId = :productId")
+    int delete(@Param("customerId") Integer customerId, @Param("productId") Long productId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockReservation r WHERE r.customerId = :customerId")
+    int deleteAllByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockReservation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt > :now")
+    List<StockReservation> findActive(@Param("now") Instant now);
+}
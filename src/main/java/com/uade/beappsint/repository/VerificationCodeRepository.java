@@ -0,0 +1,42 @@
+package com.uade.beappsint.repository;
+
+import com.uade.beappsint.entity.VerificationCode;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface VerificationCodeRepository extends CrudRepository<VerificationCode, Long> {
+    Optional<VerificationCode> findByCustomerId(Integer customerId);
+
+    /**
+     * Takes one attempt of the code if any is left. Concurrent guesses each take their own, so no
+     * more than maxAttempts guesses are ever compared.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE VerificationCode v SET v.failedAttempts = v.failedAttempts + 1 " +
+            "WHERE v.customerId = :customerId AND v.failedAttempts < :maxAttempts")
+    int takeAttempt(@Param("customerId") Integer customerId, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VerificationCode v WHERE v.id = :id")
+    int consume(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VerificationCode v WHERE v.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VerificationCode v WHERE v.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,13 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.AuthMetricsDTO;
+
+public interface AuthMetricsService {
+    void recordLogin(boolean success);
+
+    void recordRefresh(boolean success);
+
+    void recordRefreshTokenReuse();
+
+    AuthMetricsDTO getMetrics();
+}
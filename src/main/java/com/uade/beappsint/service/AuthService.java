@@ -9,8 +9,18 @@ public interface AuthService {
 
     LoginResponseDTO login(LoginRequestDTO request);
 
+    LoginResponseDTO refresh(RefreshTokenRequestDTO request);
+
+    GenericResponseDTO logout(RefreshTokenRequestDTO request);
+
+    AuthMetricsDTO getAuthMetrics();
+
     Customer getAuthenticatedCustomer();
 
+    Customer getAuthenticatedCustomerReference();
+
+    CustomerPrincipalDTO getAuthenticatedPrincipal();
+
     CustomerInfoDTO getCustomerInfo();
 
     GenericResponseDTO resendVerificationCode();
@@ -1,8 +1,10 @@
 package com.uade.beappsint.service;
 
 import com.uade.beappsint.dto.cart.AddRequestDTO;
+import com.uade.beappsint.dto.cart.CartBatchRequestDTO;
 import com.uade.beappsint.dto.cart.CartDTO;
-import com.uade.beappsint.entity.Cart;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
+import com.uade.beappsint.event.CustomerChangedEvent;
 
 public interface CartService {
     CartDTO addProductToCart(AddRequestDTO addRequestDTO);
@@ -13,7 +15,17 @@ public interface CartService {
 
     CartDTO removeOneProductFromCart(Long productId);
 
+    CartDTO applyOperations(CartBatchRequestDTO request);
+
     CartDTO checkoutCart();
 
     CartDTO getUserCart();
+
+    CartSummaryDTO getCartSummary();
+
+    int flushDirtyCarts();
+
+    void evictIdleCarts();
+
+    void onCustomerChanged(CustomerChangedEvent event);
 }
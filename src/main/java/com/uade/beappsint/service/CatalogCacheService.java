@@ -0,0 +1,27 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface CatalogCacheService {
+    ProductDTO getProduct(Long productId, Supplier<ProductDTO> loader);
+
+    List<ProductDTO> getFeaturedProducts(Supplier<List<ProductDTO>> loader);
+
+    CursorPageDTO<ProductSummaryDTO> getCategoryPage(String category, int limit, String after, Supplier<CursorPageDTO<ProductSummaryDTO>> loader);
+
+    List<ImageDTO> getImages(Long productId, Supplier<List<ImageDTO>> loader);
+
+    void onProductChanged(ProductChangedEvent event);
+
+    void invalidateAll();
+
+    List<CacheStatsDTO> getStats();
+}
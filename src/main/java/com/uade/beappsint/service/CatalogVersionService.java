@@ -0,0 +1,12 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.CatalogVersionDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+
+public interface CatalogVersionService {
+    CatalogVersionDTO getCatalogVersion();
+
+    CatalogVersionDTO getProductVersion(Long productId);
+
+    void onProductChanged(ProductChangedEvent event);
+}
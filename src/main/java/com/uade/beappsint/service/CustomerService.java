@@ -1,10 +1,12 @@
 package com.uade.beappsint.service;
 
 import com.uade.beappsint.dto.AdminRequestDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.dto.ReviewDTO;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
 import com.uade.beappsint.dto.kyc.KycBasicRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResidentialRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResponseDTO;
@@ -36,7 +38,7 @@ public interface CustomerService {
 
     GenericResponseDTO setUsersTheme(ThemeDTO themeDTO);
 
-    List<CustomerInfoDTO> getRegisteredUsers();
+    CursorPageDTO<CustomerInfoDTO> getRegisteredUsers(CustomerQueryDTO query);
 
     GenericResponseDTO deleteUser(Integer id);
 
@@ -0,0 +1,9 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ExportResourceEnum;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface ExportService {
+    StreamingResponseBody export(ExportResourceEnum resource, DataFormatEnum format, Long afterId, boolean gzip);
+}
@@ -0,0 +1,23 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.ProductDTO;
+
+import java.util.List;
+
+public interface FavoriteService {
+    boolean add(Integer customerId, Long productId);
+
+    boolean toggle(Integer customerId, Long productId);
+
+    FavoriteBatchResultDTO apply(Integer customerId, FavoriteBatchRequestDTO request);
+
+    List<Long> getFavoriteIds(Integer customerId);
+
+    List<ProductDTO> getFavoriteProducts(Integer customerId);
+
+    void deleteAllForCustomer(Integer customerId);
+
+    void deleteAllForProduct(Long productId);
+}
@@ -0,0 +1,7 @@
+package com.uade.beappsint.service;
+
+import java.util.Map;
+
+public interface InventoryService {
+    void decrementStock(Map<Long, Integer> quantities);
+}
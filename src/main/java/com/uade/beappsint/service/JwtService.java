@@ -1,5 +1,6 @@
 package com.uade.beappsint.service;
 
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
 import io.jsonwebtoken.Claims;
 import java.security.Key;
 import java.util.Date;
@@ -21,6 +22,8 @@ public interface JwtService {
 
     String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration);
 
+    VerifiedTokenDTO verifyToken(String token);
+
     boolean isTokenValid(String token, UserDetails userDetails);
 
     boolean isTokenExpired(String token);
@@ -0,0 +1,8 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.PasswordHashingStatsDTO;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public interface PasswordHashingService extends PasswordEncoder {
+    PasswordHashingStatsDTO getStats();
+}
@@ -0,0 +1,12 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.event.CustomerChangedEvent;
+
+public interface PrincipalCacheService {
+    CustomerPrincipalDTO getPrincipal(String email);
+
+    void evict(String email);
+
+    void onCustomerChanged(CustomerChangedEvent event);
+}
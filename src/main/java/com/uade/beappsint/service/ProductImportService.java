@@ -0,0 +1,10 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ProductImportResultDTO importProducts(InputStream input, DataFormatEnum format);
+}
@@ -0,0 +1,21 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.Product.ProductSearchDocumentDTO;
+import com.uade.beappsint.dto.Product.ProductSearchHitDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+
+import java.util.List;
+
+public interface ProductSearchIndexService {
+    List<ProductSearchHitDTO> search(String query, int limit, Double afterScore, Long afterId);
+
+    void index(ProductSearchDocumentDTO document);
+
+    void remove(Long productId);
+
+    void rebuild();
+
+    void onProductChanged(ProductChangedEvent event);
+
+    int size();
+}
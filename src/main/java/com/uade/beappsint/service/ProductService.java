@@ -1,15 +1,23 @@
 package com.uade.beappsint.service;
 
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
 import com.uade.beappsint.dto.ProductDTO;
-import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 
 import java.util.List;
 
 public interface ProductService {
-    List<ProductDTO> getAllProducts();
+    CursorPageDTO<ProductSummaryDTO> getAllProducts(Integer limit, String after);
 
     ProductDTO getProductById(Long id);
 
@@ -25,19 +33,23 @@ public interface ProductService {
 
     void viewProduct(Long productId);
 
-    List<ProductDTO> getFeaturedProducts();
+    List<ProductDTO> getFeaturedProducts(String category, String window);
 
-    List<ProductDTO> getProductsByCategory(String category);
+    CursorPageDTO<ProductSummaryDTO> getProductsByCategory(String category, Integer limit, String after);
 
-    List<ProductDTO> getRecentlyViewedProducts();
+    CursorPageDTO<RecentlyViewedProductDTO> getRecentlyViewedProducts(Integer limit, String after);
 
-    Customer assertAdmin();
+    CustomerPrincipalDTO assertAdmin();
 
-    void isProductCreator(Long productId, Customer customer);
+    void assertProductRequest(ProductRequestDTO productRequest);
 
-    List<ProductDTO> searchProductsByName(String partialName);
+    void isProductCreator(Long productId, Integer customerId);
 
-    List<ProductDTO> getRecommendations(Long id);
+    CursorPageDTO<ProductSummaryDTO> searchProductsByName(String partialName, Integer limit, String after);
+
+    ProductQueryResultDTO queryProducts(ProductQueryDTO query);
+
+    List<ProductSummaryDTO> getRecommendations(Long id, Integer limit);
 
     List<ImageDTO> getImagesByProductId(Long productId);
 
@@ -49,10 +61,14 @@ public interface ProductService {
 
     GenericResponseDTO toggleFavorite(Long productId);
 
+    FavoriteBatchResultDTO updateFavorites(FavoriteBatchRequestDTO request);
+
     List<Long> getFavorites();
 
     void removeProductSecondaryImages(Long productId);
 
+    List<CacheStatsDTO> getCatalogCacheStats();
+
 
 
 
@@ -62,8 +78,8 @@ public interface ProductService {
 
 
 
-    List<ProductDTO> getProductsByPriceRange(Double minPrice, Double maxPrice);
-    List<ProductDTO> getProductsByCategories(List<String> categories);
-    List<ProductDTO> getProductsInStock();
-    List<ProductDTO> getProductsAbovePrice(Double price);
+    CursorPageDTO<ProductSummaryDTO> getProductsByPriceRange(Double minPrice, Double maxPrice, Integer limit, String after);
+    CursorPageDTO<ProductSummaryDTO> getProductsByCategories(List<String> categories, Integer limit, String after);
+    CursorPageDTO<ProductSummaryDTO> getProductsInStock(Integer limit, String after);
+    CursorPageDTO<ProductSummaryDTO> getProductsAbovePrice(Double price, Integer limit, String after);
 }
@@ -0,0 +1,9 @@
+package com.uade.beappsint.service;
+
+public interface ProductViewCounterService {
+    boolean recordView(Long productId, Integer customerId);
+
+    long getPendingViews(Long productId);
+
+    int flush();
+}
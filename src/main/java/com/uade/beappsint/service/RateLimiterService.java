@@ -0,0 +1,11 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.enums.RateLimitScopeEnum;
+
+import java.util.Map;
+
+public interface RateLimiterService {
+    long tryAcquire(RateLimitScopeEnum scope, String key);
+
+    Map<String, Long> getRejections();
+}
@@ -0,0 +1,14 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
+
+public interface RecentlyViewedService {
+    void recordView(Integer customerId, Long productId);
+
+    CursorPageDTO<RecentlyViewedProductDTO> getPage(Integer customerId, int pageSize, String after);
+
+    void deleteAllForCustomer(Integer customerId);
+
+    void deleteAllForProduct(Long productId);
+}
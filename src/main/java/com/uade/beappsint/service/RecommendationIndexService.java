@@ -0,0 +1,22 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.Product.ProductFeaturesDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+
+import java.util.List;
+
+public interface RecommendationIndexService {
+    boolean contains(Long productId);
+
+    List<Long> getRecommendations(Long productId, int limit);
+
+    void index(ProductFeaturesDTO features);
+
+    void remove(Long productId);
+
+    void rebuild();
+
+    void onProductChanged(ProductChangedEvent event);
+
+    int getTopK();
+}
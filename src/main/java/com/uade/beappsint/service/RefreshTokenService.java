@@ -0,0 +1,18 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.entity.RefreshToken;
+
+public interface RefreshTokenService {
+    String issue(Customer customer, String family);
+
+    RefreshToken consume(String rawToken);
+
+    void revoke(String rawToken);
+
+    void deleteAllForCustomer(Integer customerId);
+
+    void purgeExpired();
+
+    long getExpirationTime();
+}
@@ -0,0 +1,15 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.Product;
+
+public interface StockReservationService {
+    void hold(Integer customerId, Product product, int quantity);
+
+    void reduce(Integer customerId, Long productId, int quantity);
+
+    void release(Integer customerId, Long productId);
+
+    void releaseAll(Integer customerId);
+
+    int expireHolds();
+}
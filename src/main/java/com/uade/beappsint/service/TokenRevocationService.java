@@ -0,0 +1,13 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.event.CustomerChangedEvent;
+
+public interface TokenRevocationService {
+    boolean isRevoked(Integer customerId, long tokenVersion, long claimsVersion, long issuedAt);
+
+    void recordDeletion(Integer customerId);
+
+    void refresh();
+
+    void onCustomerChanged(CustomerChangedEvent event);
+}
@@ -0,0 +1,19 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.enums.TrendingWindowEnum;
+import com.uade.beappsint.event.ProductActivityEvent;
+import com.uade.beappsint.event.ProductChangedEvent;
+
+import java.util.List;
+
+public interface TrendingService {
+    List<Long> getTrending(String category, TrendingWindowEnum window);
+
+    void onProductActivity(ProductActivityEvent event);
+
+    void onProductChanged(ProductChangedEvent event);
+
+    void refreshSnapshots();
+
+    int getTopN();
+}
@@ -0,0 +1,11 @@
+package com.uade.beappsint.service;
+
+public interface VerificationCodeService {
+    String issue(Integer customerId);
+
+    boolean verify(Integer customerId, String code);
+
+    void deleteAllForCustomer(Integer customerId);
+
+    void purgeExpired();
+}
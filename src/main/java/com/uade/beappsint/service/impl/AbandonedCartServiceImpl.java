@@ -1,6 +1,6 @@
 package com.uade.beappsint.service.impl;
 
-import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 import com.uade.beappsint.service.AuthService;
 import com.uade.beappsint.service.EmailService;
 import jakarta.mail.MessagingException;
@@ -19,7 +19,7 @@ public class AbandonedCartServiceImpl {
     private final AuthService authService;
 
     public void sendAbandonedCartEmail(String toEmail, String cartLink) throws IOException, MessagingException {
-        Customer customer = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         // Send email
         Map<String, String> replacements = new HashMap<>();
 
@@ -0,0 +1,49 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.auth.AuthMetricsDTO;
+import com.uade.beappsint.service.AuthMetricsService;
+import com.uade.beappsint.service.PasswordHashingService;
+import com.uade.beappsint.service.RateLimiterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the authentication endpoints since startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthMetricsServiceImpl implements AuthMetricsService {
+    private final PasswordHashingService passwordHashingService;
+    private final RateLimiterService rateLimiterService;
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder failedLogins = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final LongAdder reusedRefreshTokens = new LongAdder();
+
+    public void recordLogin(boolean success) {
+        (success ? logins : failedLogins).increment();
+    }
+
+    public void recordRefresh(boolean success) {
+        (success ? refreshes : failedRefreshes).increment();
+    }
+
+    public void recordRefreshTokenReuse() {
+        reusedRefreshTokens.increment();
+    }
+
+    public AuthMetricsDTO getMetrics() {
+        return AuthMetricsDTO.builder()
+                .logins(logins.sum())
+                .failedLogins(failedLogins.sum())
+                .refreshes(refreshes.sum())
+                .failedRefreshes(failedRefreshes.sum())
+                .reusedRefreshTokens(reusedRefreshTokens.sum())
+                .passwordHashing(passwordHashingService.getStats())
+                .rateLimitRejections(rateLimiterService.getRejections())
+                .build();
+    }
+}
@@ -3,57 +3,54 @@ package com.uade.beappsint.service.impl;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.auth.*;
 import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.entity.RefreshToken;
 import com.uade.beappsint.enums.KycStatusEnum;
 import com.uade.beappsint.enums.ThemeEnum;
 import com.uade.beappsint.exception.BadRequestException;
 import com.uade.beappsint.exception.UserAlreadyExistsException;
 import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.service.AuthMetricsService;
 import com.uade.beappsint.service.AuthService;
 import com.uade.beappsint.service.EmailService;
 import com.uade.beappsint.service.JwtService;
-import com.uade.beappsint.utils.CommonUtilities;
+import com.uade.beappsint.service.RefreshTokenService;
+import com.uade.beappsint.service.VerificationCodeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    public static final String SECURITY_STAMP_CLAIM = "stamp";
+    public static final String CUSTOMER_ID_CLAIM = "cid";
+    public static final String ADMIN_CLAIM = "admin";
+    public static final String KYC_STATUS_CLAIM = "kyc";
+    public static final String CLAIMS_VERSION_CLAIM = "cv";
+    private static final String CUSTOMER_ATTRIBUTE = AuthServiceImpl.class.getName() + ".customer";
+
     private final CustomerRepository customerRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthMetricsService authMetricsService;
+    private final VerificationCodeService verificationCodeService;
 
     private void createAndSendVerificationCode(Customer customer) {
-        int MAX_ITERATOR = 500;
-        int iterator = 0;
-        boolean isRepeated = true;
-        String verificationCode;
-
-        do {
-            verificationCode = CommonUtilities.generateVerificationCode();
-
-            Optional<Customer> customerOptional = customerRepository.findByVerificationCode(verificationCode);
-            if (customerOptional.isEmpty()) {
-                isRepeated = false;
-            }
-
-            iterator++;
-        } while (iterator < MAX_ITERATOR && isRepeated);
-
-        if (isRepeated) return;
-
-        customer.setVerificationCode(verificationCode);
-        customerRepository.save(customer);
+        String verificationCode = verificationCodeService.issue(customer.getId());
 
         // Send email
         Map<String, String> replacements = new HashMap<>();
@@ -78,6 +75,7 @@ public class AuthServiceImpl implements AuthService {
                 .isEnabled(true)
                 .theme(ThemeEnum.DARK)
                 .verified(false)
+                .createdAt(Instant.now())
                 .build();
 
         Customer savedCustomer = customerRepository.save(newUser);
@@ -90,26 +88,109 @@ public class AuthServiceImpl implements AuthService {
     }
 
     public LoginResponseDTO login(LoginRequestDTO request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            authMetricsService.recordLogin(false);
+            throw e;
+        }
+        authMetricsService.recordLogin(true);
 
         Customer customer = customerRepository.findByEmail(request.getEmail())
                 .orElseThrow();
 
-        String jwtToken = jwtService.generateToken(customer);
+        return buildLoginResponse(customer, refreshTokenService.issue(customer, null));
+    }
+
+    /**
+     * Trades a refresh token for a new access token and a new refresh token, without checking the
+     * password again. The presented token cannot be used a second time.
+     */
+    public LoginResponseDTO refresh(RefreshTokenRequestDTO request) {
+        RefreshToken consumed;
+        try {
+            consumed = refreshTokenService.consume(request.getRefreshToken());
+        } catch (RuntimeException e) {
+            authMetricsService.recordRefresh(false);
+            throw e;
+        }
+        authMetricsService.recordRefresh(true);
+
+        Customer customer = consumed.getCustomer();
+        return buildLoginResponse(customer, refreshTokenService.issue(customer, consumed.getFamily()));
+    }
+
+    public GenericResponseDTO logout(RefreshTokenRequestDTO request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return GenericResponseDTO.builder()
+                .message("OK")
+                .build();
+    }
+
+    public AuthMetricsDTO getAuthMetrics() {
+        if (!getAuthenticatedPrincipal().isAdmin()) {
+            throw new RuntimeException("Access denied: only administrators can perform this action.");
+        }
+        return authMetricsService.getMetrics();
+    }
+
+    private LoginResponseDTO buildLoginResponse(Customer customer, String refreshToken) {
+        // The extra claims let a node in stateless mode build the principal without a lookup.
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(SECURITY_STAMP_CLAIM, customer.getSecurityStamp() == null ? 0L : customer.getSecurityStamp());
+        claims.put(CUSTOMER_ID_CLAIM, customer.getId());
+        claims.put(ADMIN_CLAIM, customer.isAdmin());
+        claims.put(KYC_STATUS_CLAIM, customer.getKycStatus() == null ? null : customer.getKycStatus().name());
+        claims.put(CLAIMS_VERSION_CLAIM, customer.getClaimsVersion() == null ? 0L : customer.getClaimsVersion());
+
+        String jwtToken = jwtService.generateToken(claims, customer);
         return LoginResponseDTO.builder()
                 .token(jwtToken)
                 .expiresIn(jwtService.getExpirationTime())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(refreshTokenService.getExpirationTime())
                 .build();
     }
 
+    /**
+     * Loads the entity of the authenticated customer, once per request. The security context only
+     * holds a {@link CustomerPrincipalDTO}, so callers that just need the id or the admin flag should
+     * use {@link #getAuthenticatedPrincipal()} and skip the query.
+     */
     public Customer getAuthenticatedCustomer() {
+        CustomerPrincipalDTO principal = getAuthenticatedPrincipal();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return loadCustomer(principal);
+
+        Customer customer = (Customer) attributes.getAttribute(CUSTOMER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (customer == null) {
+            customer = loadCustomer(principal);
+            attributes.setAttribute(CUSTOMER_ATTRIBUTE, customer, RequestAttributes.SCOPE_REQUEST);
+        }
+        return customer;
+    }
+
+    // An unloaded reference for associations such as createdBy, so linking the customer costs no query.
+    public Customer getAuthenticatedCustomerReference() {
+        return customerRepository.getReferenceById(getAuthenticatedPrincipal().getId());
+    }
+
+    public CustomerPrincipalDTO getAuthenticatedPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return (Customer) authentication.getPrincipal();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomerPrincipalDTO principal)) {
+            throw new BadRequestException("No authenticated user.");
+        }
+        return principal;
+    }
+
+    private Customer loadCustomer(CustomerPrincipalDTO principal) {
+        return customerRepository.findById(principal.getId())
+                .orElseThrow(() -> new BadRequestException("No authenticated user."));
     }
 
     public CustomerInfoDTO getCustomerInfo() {
@@ -130,13 +211,11 @@ public class AuthServiceImpl implements AuthService {
             throw new BadRequestException("Verification was already done.");
         }
 
-        if (!request.getVerificationCode().equals(customer.getVerificationCode())) {
-            System.out.println(request.getVerificationCode() + customer.getVerificationCode());
+        if (!verificationCodeService.verify(customer.getId(), request.getVerificationCode())) {
             throw new BadRequestException("The verification code is invalid.");
         }
 
         customer.setVerified(true);
-        customer.setVerificationCode("");
         customerRepository.save(customer);
 
         return GenericResponseDTO.builder()
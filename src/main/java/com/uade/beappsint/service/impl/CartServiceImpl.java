@@ -1,124 +1,375 @@
 package com.uade.beappsint.service.impl;
 
+import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
 import com.uade.beappsint.dto.cart.AddRequestDTO;
+import com.uade.beappsint.dto.cart.CartBatchRequestDTO;
 import com.uade.beappsint.dto.cart.CartDTO;
-import com.uade.beappsint.entity.Cart;
-import com.uade.beappsint.entity.CartItem;
-import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.dto.cart.CartItemDTO;
+import com.uade.beappsint.dto.cart.CartLineDTO;
+import com.uade.beappsint.dto.cart.CartOperationDTO;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
 import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.enums.CartOperationTypeEnum;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.event.ProductChangedEvent;
 import com.uade.beappsint.exception.BadRequestException;
-import com.uade.beappsint.repository.CartItemRepository;
 import com.uade.beappsint.repository.CartRepository;
-import com.uade.beappsint.repository.CustomerRepository;
 import com.uade.beappsint.repository.ProductRepository;
 import com.uade.beappsint.service.AuthService;
 import com.uade.beappsint.service.CartService;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.uade.beappsint.service.InventoryService;
+import com.uade.beappsint.service.StockReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-
-import java.util.ArrayList;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the carts in use in memory, applies each customer's changes one at a time and writes
+ * the changed carts to the database on a schedule. Every write is checked against the version of
+ * the cart row, so a copy another instance has written over since it was loaded is dropped and
+ * reloaded instead of written back.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional
 public class CartServiceImpl implements CartService {
+    private static final String INSERT_CART_SQL = "INSERT INTO cart (customer_id, total_price, version) VALUES (?, ?, 0)";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO cart_item (cart_id, product_id, quantity) VALUES (?, ?, ?)";
+    private static final String UPDATE_ITEM_SQL = "UPDATE cart_item SET quantity = ? WHERE id = ?";
+    private static final String DELETE_ITEM_SQL = "DELETE FROM cart_item WHERE id = ?";
+    private static final String UPDATE_TOTAL_SQL = "UPDATE cart SET total_price = ?, version = version + 1 WHERE id = ? AND version = ?";
+
     private final AuthService authService;
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
-    private final CustomerRepository customerRepository;
-    private final CartItemRepository cartItemRepository;
+    private final InventoryService inventoryService;
+    private final StockReservationService stockReservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate checkoutTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idleMillis;
+    private final int batchMaxSize;
+    private final Map<Integer, CartState> states = new ConcurrentHashMap<>();
+
+    public CartServiceImpl(
+            AuthService authService,
+            CartRepository cartRepository,
+            ProductRepository productRepository,
+            InventoryService inventoryService,
+            StockReservationService stockReservationService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${cart.store.idle-seconds:1800}") long idleSeconds,
+            @Value("${cart.batch-max-size:100}") int batchMaxSize
+    ) {
+        this.authService = authService;
+        this.cartRepository = cartRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.stockReservationService = stockReservationService;
+        this.jdbcTemplate = jdbcTemplate;
+        // A cart write commits on its own, so a rolled back caller cannot leave the written state behind memory.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkoutTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.idleMillis = Duration.ofSeconds(idleSeconds).toMillis();
+        this.batchMaxSize = batchMaxSize;
+    }
 
     @Override
     public CartDTO addProductToCart(AddRequestDTO addRequestDTO) {
-        Customer customer = getAuthenticatedCustomer();
+        if (addRequestDTO.getAmount() == null || addRequestDTO.getAmount() <= 0)
+            throw new BadRequestException("Amount must be greater than zero");
+        Integer customerId = getAuthenticatedCustomerId();
         Product product = getProductById(addRequestDTO.getProductId());
 
-        Cart cart = getOrCreateCartForCustomer(customer);
-        CartItem cartItem = getOrCreateCartItem(cart, product);
-
-        validateStockAvailability(product, cartItem.getQuantity() + addRequestDTO.getAmount());
-
-        updateCartItemQuantity(cartItem, addRequestDTO.getAmount());
-        updateCartTotalPrice(cart, product.getPrice() * addRequestDTO.getAmount());
-
-        cartRepository.save(cart);
-        return cart.toDTO();
+        return withCart(customerId, cart -> {
+            int quantity = cart.quantityOf(product.getId()) + addRequestDTO.getAmount();
+            stockReservationService.hold(customerId, product, quantity);
+            cart.lines.put(product.getId(), new Line(quantity, product.getPrice()));
+            cart.changed();
+            return toDTO(cart);
+        });
     }
 
     @Override
     public CartDTO removeProductFromCart(Long productId) {
-        Customer customer = getAuthenticatedCustomer();
-        Cart cart = getCartByCustomer(customer);
-
-        CartItem cartItem = findCartItemByProductId(cart, productId);
-        updateCartTotalPrice(cart, -cartItem.getProduct().getPrice() * cartItem.getQuantity());
-
-        cart.getCartItems().remove(cartItem);
-        cartItemRepository.delete(cartItem);
-
-        cartRepository.save(cart);
-        return cart.toDTO();
+        Integer customerId = getAuthenticatedCustomerId();
+        return withCart(customerId, cart -> {
+            if (cart.lines.remove(productId) == null) throw new BadRequestException("Product not found in cart");
+            stockReservationService.release(customerId, productId);
+            cart.changed();
+            return toDTO(cart);
+        });
     }
 
     @Override
     public CartDTO clearCart() {
-        Customer customer = getAuthenticatedCustomer();
-        Cart cart = getCartByCustomer(customer);
-
-        cartItemRepository.deleteAll(cart.getCartItems());
-        cart.getCartItems().clear();
-        cart.setTotalPrice(0);
-
-        cartRepository.save(cart);
-        return cart.toDTO();
+        Integer customerId = getAuthenticatedCustomerId();
+        return withCart(customerId, cart -> {
+            cart.lines.clear();
+            stockReservationService.releaseAll(customerId);
+            cart.changed();
+            return toDTO(cart);
+        });
     }
 
     @Override
     public CartDTO removeOneProductFromCart(Long productId) {
-        Customer customer = getAuthenticatedCustomer();
-        Cart cart = getCartByCustomer(customer);
-
-        CartItem cartItem = findCartItemByProductId(cart, productId);
+        Integer customerId = getAuthenticatedCustomerId();
+        return withCart(customerId, cart -> {
+            Line line = cart.lines.get(productId);
+            if (line == null) throw new BadRequestException("Product not found in cart");
+
+            if (line.quantity() > 1) {
+                cart.lines.put(productId, new Line(line.quantity() - 1, line.unitPrice()));
+            } else {
+                cart.lines.remove(productId);
+            }
+            stockReservationService.reduce(customerId, productId, line.quantity() - 1);
+            cart.changed();
+            return toDTO(cart);
+        });
+    }
 
-        if (cartItem.getQuantity() > 1) {
-            cartItem.setQuantity(cartItem.getQuantity() - 1);
-        } else {
-            cart.getCartItems().remove(cartItem);
-            cartItemRepository.delete(cartItem);
+    /**
+     * Applies the operations in order as one change of the cart. The products are read with one
+     * query, the holds are taken for the final quantities only, and when one product lacks the
+     * stock the holds already raised are put back and the cart is left as it was. Removing a
+     * product that is not in the cart does nothing, so a batch can be replayed.
+     */
+    @Override
+    public CartDTO applyOperations(CartBatchRequestDTO request) {
+        List<CartOperationDTO> operations = request.getOperations() == null ? List.of() : request.getOperations();
+        if (operations.size() > batchMaxSize)
+            throw new BadRequestException("At most " + batchMaxSize + " cart operations can be applied at once.");
+        Set<Long> productIds = new HashSet<>();
+        for (CartOperationDTO operation : operations) {
+            validateOperation(operation);
+            if (operation.getType() != CartOperationTypeEnum.REMOVE) productIds.add(operation.getProductId());
         }
 
-        updateCartTotalPrice(cart, -cartItem.getProduct().getPrice());
-
-        cartRepository.save(cart);
-        return cart.toDTO();
+        Integer customerId = getAuthenticatedCustomerId();
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(productIds).forEach(product -> products.put(product.getId(), product));
+        if (products.size() < productIds.size()) throw new BadRequestException("Product not found");
+
+        return withCart(customerId, cart -> {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            cart.lines.forEach((productId, line) -> quantities.put(productId, line.quantity()));
+            for (CartOperationDTO operation : operations) {
+                switch (operation.getType()) {
+                    case ADD -> quantities.merge(operation.getProductId(), operation.getQuantity(), Integer::sum);
+                    case REMOVE -> quantities.remove(operation.getProductId());
+                    case SET_QUANTITY -> {
+                        if (operation.getQuantity() == 0) quantities.remove(operation.getProductId());
+                        else quantities.put(operation.getProductId(), operation.getQuantity());
+                    }
+                }
+            }
+
+            Map<Long, Integer> raised = new LinkedHashMap<>();
+            try {
+                quantities.forEach((productId, quantity) -> {
+                    int previous = cart.quantityOf(productId);
+                    if (quantity <= previous) return;
+                    stockReservationService.hold(customerId, products.get(productId), quantity);
+                    raised.put(productId, previous);
+                });
+            } catch (BadRequestException e) {
+                raised.forEach((productId, previous) -> stockReservationService.reduce(customerId, productId, previous));
+                throw e;
+            }
+
+            for (Map.Entry<Long, Line> entry : cart.lines.entrySet()) {
+                int quantity = quantities.getOrDefault(entry.getKey(), 0);
+                if (quantity < entry.getValue().quantity()) stockReservationService.reduce(customerId, entry.getKey(), quantity);
+            }
+
+            Map<Long, Line> lines = new LinkedHashMap<>();
+            quantities.forEach((productId, quantity) -> {
+                Line line = cart.lines.get(productId);
+                if (line != null && line.quantity() == quantity) {
+                    lines.put(productId, line);
+                } else {
+                    Product product = products.get(productId);
+                    lines.put(productId, new Line(quantity, product != null ? product.getPrice() : line.unitPrice()));
+                }
+            });
+            if (!lines.equals(cart.lines)) {
+                cart.lines.clear();
+                cart.lines.putAll(lines);
+                cart.changed();
+            }
+            return toDTO(cart);
+        });
     }
 
+    /**
+     * Takes the stock of every line, empties the cart and returns what was bought, all under one
+     * hold of the cart lock so no change can land between the three. The decrement and the emptied
+     * cart are written in the caller's transaction; when it rolls back the cart is dropped from
+     * memory and reloaded as it was.
+     */
     @Override
     public CartDTO checkoutCart() {
-        Customer customer = getAuthenticatedCustomer();
-        Cart cart = getCartByCustomer(customer);
+        Integer customerId = getAuthenticatedCustomerId();
+        return withCart(customerId, cart -> {
+            Map<Long, Integer> quantities = new HashMap<>();
+            cart.lines.forEach((productId, line) -> quantities.put(productId, line.quantity()));
+            if (quantities.isEmpty()) return toDTO(cart);
+
+            Map<Long, Product> products = new HashMap<>();
+            productRepository.findAllById(quantities.keySet()).forEach(product -> products.put(product.getId(), product));
+            if (products.size() < quantities.size()) throw new BadRequestException("Product not found");
+
+            // Holds that still cover the cart are renewed as they are; expired ones are taken again if the stock allows.
+            quantities.forEach((productId, quantity) -> stockReservationService.hold(customerId, products.get(productId), quantity));
+
+            CartDTO bought = toDTO(cart);
+            Map<Long, Line> lines = new LinkedHashMap<>(cart.lines);
+            Long cartId = cart.cartId;
+            try {
+                checkoutTemplate.executeWithoutResult(status -> {
+                    // All or nothing: a product without enough stock rolls back every decrement.
+                    inventoryService.decrementStock(quantities);
+                    cart.lines.clear();
+                    cart.changed();
+                    markPersisted(cart, write(cart));
+                    if (TransactionSynchronizationManager.isSynchronizationActive())
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public void afterCompletion(int status) {
+                                if (status != STATUS_COMMITTED) discard(cart);
+                            }
+                        });
+                });
+            } catch (RuntimeException e) {
+                cart.cartId = cartId;
+                cart.lines.putAll(lines);
+                if (e instanceof OptimisticLockingFailureException) discard(cart);
+                throw e;
+            }
+            stockReservationService.releaseAll(customerId);
+            products.values().forEach(product -> eventPublisher.publishEvent(
+                    new ProductChangedEvent(product.getId(), ProductChangeTypeEnum.STOCK_CHANGED, Collections.singleton(product.getCategory()))));
+            return bought;
+        });
+    }
+
+    @Override
+    public CartDTO getUserCart() {
+        return withCart(getAuthenticatedCustomerId(), this::toDTO);
+    }
 
-        cart.getCartItems().forEach(cartItem -> validateStockAvailability(cartItem.getProduct(), cartItem.getQuantity()));
+    /**
+     * Item count and total for the header badge. A cart in memory answers from its lines; any
+     * other cart was fully written before it left memory, so one aggregate over its rows is exact
+     * and the cart is not loaded.
+     */
+    @Override
+    public CartSummaryDTO getCartSummary() {
+        Integer customerId = getAuthenticatedCustomerId();
+        CartState cart = states.get(customerId);
+        if (cart != null) {
+            cart.lock.lock();
+            try {
+                if (!cart.retired && cart.loaded) {
+                    long quantity = 0;
+                    for (Line line : cart.lines.values()) quantity += line.quantity();
+                    return new CartSummaryDTO(quantity, cart.total());
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        return cartRepository.findSummaryByCustomerId(customerId).orElseGet(() -> new CartSummaryDTO(0, 0));
+    }
 
-        cart.getCartItems().forEach(cartItem -> {
-            Product product = cartItem.getProduct();
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public int flushDirtyCarts() {
+        int flushed = 0;
+        for (CartState cart : states.values()) {
+            if (!cart.isDirty()) continue;
+            cart.lock.lock();
+            try {
+                if (!cart.retired && cart.isDirty() && persist(cart)) flushed++;
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        return flushed;
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.eviction-interval-ms:60000}")
+    public void evictIdleCarts() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        states.forEach((customerId, cart) -> {
+            if (cart.lastAccess > idleSince || !cart.lock.tryLock()) return;
+            try {
+                if (cart.isDirty() || cart.lastAccess > idleSince) return;
+                cart.retired = true;
+                states.remove(customerId, cart);
+            } finally {
+                cart.lock.unlock();
+            }
         });
+    }
 
-        return cart.toDTO();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!event.isDeleted()) return;
+        CartState cart = states.get(event.getCustomerId());
+        if (cart != null) discard(cart);
     }
 
-    @Override
-    public CartDTO getUserCart() {
-        Customer customer = getAuthenticatedCustomer();
-        Cart cart = getOrCreateCartForCustomer(customer);
-        return cart.toDTO();
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyCarts();
+    }
+
+    private static void validateOperation(CartOperationDTO operation) {
+        if (operation == null || operation.getType() == null || operation.getProductId() == null)
+            throw new BadRequestException("Every cart operation needs a type and a product id");
+        Integer quantity = operation.getQuantity();
+        if (operation.getType() == CartOperationTypeEnum.ADD && (quantity == null || quantity <= 0))
+            throw new BadRequestException("Amount must be greater than zero");
+        if (operation.getType() == CartOperationTypeEnum.SET_QUANTITY && (quantity == null || quantity < 0))
+            throw new BadRequestException("Quantity must not be negative");
     }
 
-    private Customer getAuthenticatedCustomer() {
-        return authService.getAuthenticatedCustomer();
+    private Integer getAuthenticatedCustomerId() {
+        return authService.getAuthenticatedPrincipal().getId();
     }
 
     private Product getProductById(Long productId) {
@@ -126,59 +377,241 @@ public class CartServiceImpl implements CartService {
                 .orElseThrow(() -> new BadRequestException("Product not found"));
     }
 
-    private void validateStockAvailability(Product product, int requestedAmount) {
-        if (product.getStock() < requestedAmount) {
-            throw new BadRequestException("Producto agotado: " + product.getName());
+    // Runs the operation with the cart of the customer locked. A cart evicted while the caller
+    // waited for the lock is retired, and the caller starts over with a fresh one.
+    private <T> T withCart(Integer customerId, Function<CartState, T> operation) {
+        while (true) {
+            CartState cart = states.computeIfAbsent(customerId, CartState::new);
+            cart.lock.lock();
+            try {
+                if (cart.retired) continue;
+                if (!cart.loaded) load(cart);
+                cart.lastAccess = System.currentTimeMillis();
+                return operation.apply(cart);
+            } finally {
+                cart.lock.unlock();
+            }
         }
     }
 
-    private Cart getOrCreateCartForCustomer(Customer customer) {
-        return cartRepository.findByCustomerId(customer.getId())
-                .orElseGet(() -> {
-                    Customer attachedCustomer = customerRepository.findById(customer.getId()).orElseThrow(() -> new RuntimeException("Cannot find authenticated user. Internal error."));
-                    Cart newCart = Cart.builder()
-                            .customer(attachedCustomer)
-                            .totalPrice(0)
-                            .cartItems(new ArrayList<>())
-                            .build();
-                    return cartRepository.save(newCart);
-                });
+    // Drops the cart from memory without writing it; the next access reloads it from the database.
+    private void discard(CartState cart) {
+        cart.lock.lock();
+        try {
+            cart.retired = true;
+            states.remove(cart.customerId, cart);
+        } finally {
+            cart.lock.unlock();
+        }
     }
 
-    private CartItem getOrCreateCartItem(Cart cart, Product product) {
-        return cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(product.getId()))
-                .findFirst()
-                .orElseGet(() -> {
-                    CartItem newCartItem = CartItem.builder()
-                            .product(product)
-                            .cart(cart)
-                            .quantity(0)
-                            .build();
-                    cartItemRepository.save(newCartItem);
-                    cart.getCartItems().add(newCartItem);
-                    return newCartItem;
-                });
+    private void load(CartState cart) {
+        List<CartLineDTO> rows = cartRepository.findLinesByCustomerId(cart.customerId);
+        for (CartLineDTO row : rows) {
+            cart.cartId = row.getCartId();
+            if (row.getItemId() == null) continue;
+            Long productId = row.getProductId();
+            if (productId == null || cart.persisted.containsKey(productId)) {
+                // Older code could leave two rows for one product; keep one and merge the quantities.
+                cart.strayItemIds.add(row.getItemId());
+                if (productId != null) cart.lines.put(productId, new Line(cart.quantityOf(productId) + row.getQuantity(), row.getPrice()));
+                cart.changed();
+                continue;
+            }
+            cart.lines.put(productId, new Line(row.getQuantity(), row.getPrice()));
+            cart.persisted.put(productId, new PersistedLine(row.getItemId(), row.getQuantity()));
+        }
+        if (!rows.isEmpty()) cart.storedVersion = rows.get(0).getCartVersion();
+        cart.loaded = true;
+    }
+
+    // Called with the cart locked. Returns false when the write failed; the cart stays dirty and
+    // the next flush retries it, unless another instance wrote the cart first and this copy is dropped.
+    private boolean persist(CartState cart) {
+        Long cartId = cart.cartId;
+        try {
+            markPersisted(cart, transactionTemplate.execute(status -> write(cart)));
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("The cart of customer {} was written by another instance; reloading it", cart.customerId);
+            discard(cart);
+            return false;
+        } catch (DataAccessException | TransactionException e) {
+            cart.cartId = cartId;
+            log.warn("Could not write the cart of customer {}", cart.customerId, e);
+            return false;
+        }
+    }
+
+    // Called once the write succeeded, which bumped the version of the cart row by one.
+    private static void markPersisted(CartState cart, Map<Long, PersistedLine> written) {
+        cart.persisted.clear();
+        cart.persisted.putAll(written);
+        cart.strayItemIds.clear();
+        cart.persistedVersion = cart.version;
+        cart.storedVersion++;
+    }
+
+    private Map<Long, PersistedLine> write(CartState cart) {
+        double total = cart.total();
+        if (cart.cartId == null) {
+            cart.cartId = insertCart(cart.customerId, total);
+            cart.storedVersion = 0;
+        }
+        // Goes first: the row lock it takes keeps other instances off the items until this commits.
+        if (jdbcTemplate.update(UPDATE_TOTAL_SQL, total, cart.cartId, cart.storedVersion) == 0)
+            throw new OptimisticLockingFailureException("Cart " + cart.cartId + " was written by another instance");
+
+        Map<Long, PersistedLine> written = new HashMap<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Map.Entry<Long, Line>> inserts = new ArrayList<>();
+        cart.strayItemIds.forEach(itemId -> deletes.add(new Object[]{itemId}));
+        cart.persisted.forEach((productId, persisted) -> {
+            if (!cart.lines.containsKey(productId)) deletes.add(new Object[]{persisted.itemId()});
+        });
+        for (Map.Entry<Long, Line> entry : cart.lines.entrySet()) {
+            PersistedLine persisted = cart.persisted.get(entry.getKey());
+            if (persisted == null) {
+                inserts.add(entry);
+                continue;
+            }
+            if (persisted.quantity() != entry.getValue().quantity()) {
+                updates.add(new Object[]{entry.getValue().quantity(), persisted.itemId()});
+            }
+            written.put(entry.getKey(), new PersistedLine(persisted.itemId(), entry.getValue().quantity()));
+        }
+
+        if (!deletes.isEmpty()) jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, deletes);
+        if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_ITEM_SQL, updates);
+        if (!inserts.isEmpty()) written.putAll(insertItems(cart.cartId, inserts));
+        return written;
     }
 
-    private void updateCartItemQuantity(CartItem cartItem, int quantity) {
-        cartItem.setQuantity(cartItem.getQuantity() + quantity);
-        cartItemRepository.save(cartItem);
+    private Long insertCart(Integer customerId, double total) {
+        KeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_CART_SQL, Statement.RETURN_GENERATED_KEYS);
+            statement.setInt(1, customerId);
+            statement.setDouble(2, total);
+            return statement;
+        }, key);
+        return Objects.requireNonNull(key.getKey()).longValue();
     }
 
-    private Cart getCartByCustomer(Customer customer) {
-        return cartRepository.findByCustomerId(customer.getId())
-                .orElseThrow(() -> new BadRequestException("Cart not found"));
+    private Map<Long, PersistedLine> insertItems(Long cartId, List<Map.Entry<Long, Line>> inserts) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ITEM_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setLong(1, cartId);
+                        statement.setLong(2, inserts.get(i).getKey());
+                        statement.setInt(3, inserts.get(i).getValue().quantity());
+                    }
+
+                    public int getBatchSize() {
+                        return inserts.size();
+                    }
+                },
+                keys);
+
+        Map<Long, PersistedLine> written = new HashMap<>();
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < inserts.size(); i++) {
+            Long itemId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            written.put(inserts.get(i).getKey(), new PersistedLine(itemId, inserts.get(i).getValue().quantity()));
+        }
+        return written;
+    }
+
+    // The products of all the lines come from one projection, so rendering never loads product
+    // entities or their creators, and the stock shown is the current one.
+    private CartDTO toDTO(CartState cart) {
+        Map<Long, ProductSummaryDTO> products = cart.lines.isEmpty() ? Map.of()
+                : productRepository.findSummariesByIdIn(cart.lines.keySet()).stream()
+                        .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity()));
+        List<CartItemDTO> items = new ArrayList<>(cart.lines.size());
+        int quantity = 0;
+        for (Map.Entry<Long, Line> entry : cart.lines.entrySet()) {
+            ProductSummaryDTO product = products.get(entry.getKey());
+            if (product == null) continue;
+            PersistedLine persisted = cart.persisted.get(entry.getKey());
+            items.add(CartItemDTO.builder()
+                    .id(persisted == null ? null : persisted.itemId())
+                    .product(toProductDTO(product))
+                    .quantity(entry.getValue().quantity())
+                    .build());
+            quantity += entry.getValue().quantity();
+        }
+
+        return CartDTO.builder()
+                .id(cart.cartId)
+                .cartItems(items)
+                .totalPrice(cart.total())
+                .quantity(quantity)
+                .build();
+    }
+
+    private static ProductDTO toProductDTO(ProductSummaryDTO product) {
+        return ProductDTO.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .stock(product.getStock())
+                .price(product.getPrice())
+                .category(product.getCategory())
+                .imageUrl(product.getImageUrl())
+                .year(product.getYear())
+                .director(product.getDirector())
+                .createdByEmail(product.getCreatedByEmail())
+                .build();
+    }
+
+    private record Line(int quantity, double unitPrice) {
     }
 
-    private CartItem findCartItemByProductId(Cart cart, Long productId) {
-        return cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Product not found in cart"));
+    private record PersistedLine(Long itemId, int quantity) {
     }
 
-    private void updateCartTotalPrice(Cart cart, double amount) {
-        cart.setTotalPrice(cart.getTotalPrice() + amount);
+    /**
+     * The cart of one customer. Everything but the volatile fields is read and written with the
+     * lock held.
+     */
+    private static final class CartState {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Integer customerId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private final Map<Long, PersistedLine> persisted = new HashMap<>();
+        private final List<Long> strayItemIds = new ArrayList<>();
+        private Long cartId;
+        private long storedVersion;
+        private boolean loaded;
+        private boolean retired;
+        private volatile long version;
+        private volatile long persistedVersion;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private CartState(Integer customerId) {
+            this.customerId = customerId;
+        }
+
+        int quantityOf(Long productId) {
+            Line line = lines.get(productId);
+            return line == null ? 0 : line.quantity();
+        }
+
+        double total() {
+            double total = 0;
+            for (Line line : lines.values()) total += line.quantity() * line.unitPrice();
+            return total;
+        }
+
+        void changed() {
+            version++;
+        }
+
+        boolean isDirty() {
+            return version != persistedVersion;
+        }
     }
 }
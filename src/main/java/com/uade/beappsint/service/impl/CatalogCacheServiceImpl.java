@@ -0,0 +1,118 @@
+package com.uade.beappsint.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.uade.beappsint.dto.CacheStatsDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.service.CatalogCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of the catalog reads, evicted when a {@link ProductChangedEvent} commits.
+ */
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+    private static final String FEATURED_KEY = "featured";
+
+    private final Cache<Long, ProductDTO> products;
+    private final Cache<String, List<ProductDTO>> featured;
+    private final Cache<CategoryPageKey, CursorPageDTO<ProductSummaryDTO>> categoryPages;
+    private final Cache<Long, List<ImageDTO>> images;
+
+    public CatalogCacheServiceImpl(
+            @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+            @Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.products = newCache(maximumSize, ttlSeconds);
+        this.featured = newCache(1, ttlSeconds);
+        this.categoryPages = newCache(maximumSize, ttlSeconds);
+        this.images = newCache(maximumSize, ttlSeconds);
+    }
+
+    public ProductDTO getProduct(Long productId, Supplier<ProductDTO> loader) {
+        return products.get(productId, key -> loader.get());
+    }
+
+    public List<ProductDTO> getFeaturedProducts(Supplier<List<ProductDTO>> loader) {
+        return featured.get(FEATURED_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    public CursorPageDTO<ProductSummaryDTO> getCategoryPage(String category, int limit, String after, Supplier<CursorPageDTO<ProductSummaryDTO>> loader) {
+        return categoryPages.get(new CategoryPageKey(category, limit, after), key -> loader.get());
+    }
+
+    public List<ImageDTO> getImages(Long productId, Supplier<List<ImageDTO>> loader) {
+        return images.get(productId, key -> List.copyOf(loader.get()));
+    }
+
+    // Runs after the publishing transaction commits, or right away when there is none.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getProductId() != null) {
+            products.invalidate(event.getProductId());
+            if (event.getType() == ProductChangeTypeEnum.IMAGES_CHANGED || event.getType() == ProductChangeTypeEnum.DELETED) {
+                images.invalidate(event.getProductId());
+            }
+        }
+
+        if (event.getCategories() != null && !event.getCategories().isEmpty()) {
+            categoryPages.asMap().keySet().removeIf(key -> event.getCategories().contains(key.category()));
+        }
+
+        featured.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        products.invalidateAll();
+        featured.invalidateAll();
+        categoryPages.invalidateAll();
+        images.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        return List.of(
+                toStatsDTO("products", products),
+                toStatsDTO("featured", featured),
+                toStatsDTO("categoryPages", categoryPages),
+                toStatsDTO("images", images)
+        );
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static CacheStatsDTO toStatsDTO(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private record CategoryPageKey(String category, int limit, String after) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.CatalogVersionDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.service.CatalogVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ETag and Last-Modified validators of the catalog and of each product. Versions are per node,
+ * so the validators also roll over once per TTL window.
+ */
+@Service
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+    private final long epoch = System.currentTimeMillis();
+    private final String epochTag = Long.toString(epoch, 36);
+    private final long ttlMillis;
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<Long, Change> productChanges = new ConcurrentHashMap<>();
+    private volatile Change catalogChange = new Change(0, epoch);
+
+    public CatalogVersionServiceImpl(@Value("${catalog.http.validator-ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMillis = Math.max(1, ttlSeconds) * 1000;
+    }
+
+    public CatalogVersionDTO getCatalogVersion() {
+        return validators("c", catalogChange);
+    }
+
+    public CatalogVersionDTO getProductVersion(Long productId) {
+        return validators("p" + productId, productChanges.getOrDefault(productId, new Change(0, epoch)));
+    }
+
+    // Runs after the catalog cache and the search and recommendation indexes have been updated,
+    // so a new ETag is never paired with content that is still stale.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Change change = new Change(versions.incrementAndGet(), Math.max(System.currentTimeMillis(), epoch));
+        if (event.getProductId() != null) {
+            productChanges.put(event.getProductId(), change);
+        }
+        catalogChange = change;
+    }
+
+    private CatalogVersionDTO validators(String prefix, Change change) {
+        long window = System.currentTimeMillis() / ttlMillis;
+        String etag = "\"" + prefix + "-" + epochTag + "-" + change.version() + "-" + Long.toString(window, 36) + "\"";
+        return new CatalogVersionDTO(etag, Math.max(change.changedAt(), window * ttlMillis));
+    }
+
+    private record Change(long version, long changedAt) {
+    }
+}
@@ -1,10 +1,13 @@
 package com.uade.beappsint.service.impl;
 
 import com.uade.beappsint.dto.AdminRequestDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.dto.ReviewDTO;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
 import com.uade.beappsint.dto.kyc.KycBasicRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResidentialRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResponseDTO;
@@ -20,7 +23,13 @@ import com.uade.beappsint.repository.CustomerRepository;
 import com.uade.beappsint.repository.ReviewRepository;
 import com.uade.beappsint.service.AuthService;
 import com.uade.beappsint.service.CustomerService;
+import com.uade.beappsint.service.FavoriteService;
 import com.uade.beappsint.service.ProductService;
+import com.uade.beappsint.service.RecentlyViewedService;
+import com.uade.beappsint.service.RefreshTokenService;
+import com.uade.beappsint.service.TokenRevocationService;
+import com.uade.beappsint.service.VerificationCodeService;
+import com.uade.beappsint.utils.CursorUtilities;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
@@ -32,12 +41,20 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final CustomerRepository customerRepository;
     private final ProductService productService;
     private final AuthService authService;
     private final AdminRequestRepository adminRequestRepository;
     private final ReviewRepository reviewRepository;
     private final CartRepository cartRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final VerificationCodeService verificationCodeService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final FavoriteService favoriteService;
+    private final TokenRevocationService tokenRevocationService;
 
     public KycResponseDTO basicKyc(KycBasicRequestDTO kycBasicRequestDTO) {
         Customer customer = authService.getAuthenticatedCustomer();
@@ -51,6 +68,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setLastname(kycBasicRequestDTO.getLastname());
         customer.setDateOfBirth(kycBasicRequestDTO.getDateOfBirth());
         customer.setKycStatus(KycStatusEnum.RESIDENTIAL_KYC);
+        customer.bumpClaimsVersion();
         customerRepository.save(customer);
 
         return KycResponseDTO.builder()
@@ -68,6 +86,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setComplementaryAddress(kycResidentialRequestDTO.getComplementaryAddress() != null ? kycResidentialRequestDTO.getComplementaryAddress() : "N/A");
         customer.setPhoneNumber(kycResidentialRequestDTO.getPhoneNumber());
         customer.setKycStatus(KycStatusEnum.COMPLETED_KYC);
+        customer.bumpClaimsVersion();
         customerRepository.save(customer);
 
         return KycResponseDTO.builder()
@@ -86,26 +105,23 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     public boolean markProductAsFavorite(Integer customerId, Long productId) {
-        Customer customerAuth = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customerAuth = authService.getAuthenticatedPrincipal();
         if (!customerAuth.getKycStatus().equals(KycStatusEnum.BASIC_KYC))
             throw new BadRequestException("Kyc stage already completed.");
-        int result = customerRepository.addFavoriteProduct(customerId, productId);
-        return result > 0;
+        return favoriteService.add(customerId, productId);
     }
 
     public List<ProductDTO> getFavoriteProducts(Integer customerId) {
-        Customer customerAuth = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customerAuth = authService.getAuthenticatedPrincipal();
         if (!customerAuth.getKycStatus().equals(KycStatusEnum.BASIC_KYC))
             throw new BadRequestException("Kyc stage already completed.");
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
-        return customerRepository.findFavoriteProductsByCustomerId(customer.getId()).stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+        return favoriteService.getFavoriteProducts(customer.getId());
     }
 
     public AdminRequestDTO requestAdminRole(Integer customerId) {
-        Customer customerAuth = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customerAuth = authService.getAuthenticatedPrincipal();
         if (!customerAuth.getKycStatus().equals(KycStatusEnum.BASIC_KYC))
             throw new BadRequestException("Kyc stage already completed.");
         Customer customer = customerRepository.findById(customerId)
@@ -130,12 +146,13 @@ public class CustomerServiceImpl implements CustomerService {
         adminRequest = adminRequestRepository.save(adminRequest);
         Customer customer = adminRequest.getCustomer();
         customer.setAdmin(true);
+        customer.bumpClaimsVersion();
         customerRepository.save(customer);
         return adminRequest.toDTO();
     }
 
     public ReviewDTO addReview(ReviewDTO reviewDTO) {
-        Customer customerAuth = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customerAuth = authService.getAuthenticatedPrincipal();
         Review review = new Review();
         Customer customer = customerRepository.findById(customerAuth.getId()).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
         ProductDTO productDTO = productService.getProductById(reviewDTO.getProductId());
@@ -160,7 +177,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     public List<AdminRequestDTO> getPendingAdminRequests() {
-        Customer customerAuth = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customerAuth = authService.getAuthenticatedPrincipal();
         if (!customerAuth.getKycStatus().equals(KycStatusEnum.BASIC_KYC))
             throw new BadRequestException("Kyc stage already completed.");
         assertAdmin();
@@ -177,29 +194,43 @@ public class CustomerServiceImpl implements CustomerService {
                 .build();
     }
 
-    public List<CustomerInfoDTO> getRegisteredUsers() {
-        Customer authed = authService.getAuthenticatedCustomer();
+    public CursorPageDTO<CustomerInfoDTO> getRegisteredUsers(CustomerQueryDTO query) {
+        CustomerPrincipalDTO authed = authService.getAuthenticatedPrincipal();
         if (!authed.isAdmin()) throw new BadRequestException("Only admins can access this resource!");
 
-        List<Customer> registeredCustomers = (List<Customer>) customerRepository.findAll();
+        if (query.getLimit() != null && query.getLimit() <= 0) throw new BadRequestException("Limit must be greater than zero");
+        int pageSize = query.getLimit() == null ? DEFAULT_PAGE_SIZE : Math.min(query.getLimit(), MAX_PAGE_SIZE);
+        if (query.getCreatedFrom() != null && query.getCreatedTo() != null && query.getCreatedFrom().isAfter(query.getCreatedTo()))
+            throw new BadRequestException("createdFrom must not be after createdTo");
+        Integer afterId = query.getAfter() == null || query.getAfter().isBlank()
+                ? null
+                : Math.toIntExact(CursorUtilities.decodeId(query.getAfter()));
 
-        List<CustomerInfoDTO> customerInfoDTOS = new ArrayList<>();
-        for (Customer customer : registeredCustomers) {
-            if (!customer.getIsEnabled()) continue;
-            customerInfoDTOS.add(customer.toDto());
-        }
+        List<CustomerInfoDTO> rows = customerRepository.findDirectoryPage(query, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<CustomerInfoDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
 
-        return customerInfoDTOS;
+        return CursorPageDTO.<CustomerInfoDTO>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(hasMore ? CursorUtilities.encode(items.get(items.size() - 1).getId().longValue()) : null)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
     }
 
     public GenericResponseDTO deleteUser(Integer id) {
-        Customer authed = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO authed = authService.getAuthenticatedPrincipal();
         if (!authed.isAdmin()) throw new BadRequestException("Only admins can access this resource!");
 
         if (authed.getId().equals(id)) throw new BadRequestException("You are not allowed to delete yourself...");
 
         Customer customer = customerRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
         cartRepository.findByCustomerId(customer.getId()).ifPresent(customerCart -> cartRepository.deleteById(customerCart.getId()));
+        refreshTokenService.deleteAllForCustomer(customer.getId());
+        verificationCodeService.deleteAllForCustomer(customer.getId());
+        recentlyViewedService.deleteAllForCustomer(customer.getId());
+        favoriteService.deleteAllForCustomer(customer.getId());
+        tokenRevocationService.recordDeletion(customer.getId());
         customerRepository.deleteById(id);
 
         return GenericResponseDTO.builder()
@@ -208,11 +239,14 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     public GenericResponseDTO toggleAdmin(Integer id) {
-        Customer authed = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO authed = authService.getAuthenticatedPrincipal();
         if (!authed.isAdmin()) throw new BadRequestException("Only admins can access this resource!");
 
         Customer customer = customerRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
         customer.setAdmin(!customer.isAdmin());
+        customer.bumpClaimsVersion();
+        // Losing the admin flag must end the sessions that were opened with it.
+        if (!customer.isAdmin()) customer.rotateSecurityStamp();
         customerRepository.save(customer);
 
         return GenericResponseDTO.builder()
@@ -221,7 +255,7 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     private void assertAdmin() {
-        Customer customer = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         if (!customer.isAdmin()) {
             throw new RuntimeException("Access denied: only administrators can perform this action.");
         }
@@ -0,0 +1,191 @@
+package com.uade.beappsint.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ExportResourceEnum;
+import com.uade.beappsint.service.AuthService;
+import com.uade.beappsint.service.ExportService;
+import com.uade.beappsint.utils.CsvUtilities;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams whole tables to the client row by row in id order; {@code afterId} resumes an export.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+    // Connector/J streams a forward-only, read-only result set row by row with this fetch size.
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Map<ExportResourceEnum, String> QUERIES = Map.of(
+            ExportResourceEnum.PRODUCTS,
+            "SELECT id, name, description, price, stock, category, `year`, director, views, image_url, created_by " +
+                    "FROM product WHERE id > ? ORDER BY id",
+            ExportResourceEnum.CUSTOMERS,
+            "SELECT id, firstname, lastname, email, dob, kyc_status, street_name, street_number, complementary_address, " +
+                    "phone_number, is_admin, `is-enabled` AS is_enabled, verified FROM customer WHERE id > ? ORDER BY id",
+            ExportResourceEnum.TRANSACTIONS,
+            "SELECT id, customer_id, customer_email, `date`, amount_ars, amount_usd, conversion_rate " +
+                    "FROM `transaction` WHERE id > ? ORDER BY id"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthService authService;
+
+    public StreamingResponseBody export(ExportResourceEnum resource, DataFormatEnum format, Long afterId, boolean gzip) {
+        assertAdmin();
+        long after = afterId == null ? 0 : afterId;
+
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+            RowWriter writer = format == DataFormatEnum.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+            Long rows = jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        QUERIES.get(resource), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(STREAMING_FETCH_SIZE);
+                statement.setLong(1, after);
+                return statement;
+            }, (ResultSetExtractor<Long>) resultSet -> {
+                try {
+                    writer.header(resultSet.getMetaData());
+                    long count = 0;
+                    while (resultSet.next()) {
+                        writer.row(resultSet);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) gzipStream.finish();
+            target.flush();
+            log.info("Exported {} {} rows after id {} as {}", rows, resource, after, format);
+        };
+    }
+
+    private void assertAdmin() {
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
+        if (!customer.isAdmin()) {
+            throw new RuntimeException("Access denied: only administrators can perform this action.");
+        }
+    }
+
+    private static Object exportValue(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Number) return value;
+        return value.toString();
+    }
+
+    private interface RowWriter {
+        void header(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void row(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonRowWriter(OutputStream outputStream) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(outputStream);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated by the newline written after each object, not by Jackson's default space.
+            this.generator.setRootValueSeparator(null);
+        }
+
+        public void header(ResultSetMetaData metaData) throws SQLException {
+            columns = labels(metaData);
+        }
+
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = exportValue(resultSet.getObject(i + 1));
+                if (value == null) generator.writeNull();
+                else if (value instanceof Boolean bool) generator.writeBoolean(bool);
+                else if (value instanceof BigDecimal decimal) generator.writeNumber(decimal);
+                else if (value instanceof Double || value instanceof Float) generator.writeNumber(((Number) value).doubleValue());
+                else if (value instanceof Number number) generator.writeNumber(number.longValue());
+                else generator.writeString((String) value);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columnCount;
+
+        CsvRowWriter(OutputStream outputStream) {
+            this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        }
+
+        public void header(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] columns = labels(metaData);
+            columnCount = columns.length;
+            writeLine(columns);
+        }
+
+        public void row(ResultSet resultSet) throws SQLException, IOException {
+            String[] values = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                Object value = exportValue(resultSet.getObject(i + 1));
+                // Numbers and booleans are never prefixed, so a negative price stays a number.
+                if (value == null) values[i] = "";
+                else if (value instanceof String text) values[i] = CsvUtilities.neutralizeFormula(text);
+                else values[i] = value.toString();
+            }
+            writeLine(values);
+        }
+
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(CsvUtilities.escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private static String[] labels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+}
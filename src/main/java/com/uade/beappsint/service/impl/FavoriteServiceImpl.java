@@ -0,0 +1,94 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.exception.ResourceNotFoundException;
+import com.uade.beappsint.repository.FavoriteProductRepository;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.FavoriteService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the favorites straight to the join table without loading the customer or the product.
+ */
+@Service
+public class FavoriteServiceImpl implements FavoriteService {
+    private final FavoriteProductRepository favoriteProductRepository;
+    private final ProductRepository productRepository;
+    private final int batchMaxSize;
+
+    public FavoriteServiceImpl(
+            FavoriteProductRepository favoriteProductRepository,
+            ProductRepository productRepository,
+            @Value("${catalog.favorites.batch-max-size:100}") int batchMaxSize
+    ) {
+        this.favoriteProductRepository = favoriteProductRepository;
+        this.productRepository = productRepository;
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    public boolean add(Integer customerId, Long productId) {
+        return favoriteProductRepository.insertAll(customerId, List.of(productId)) > 0;
+    }
+
+    @Transactional
+    public boolean toggle(Integer customerId, Long productId) {
+        if (favoriteProductRepository.deleteAll(customerId, List.of(productId)) > 0) return false;
+        if (favoriteProductRepository.insertAll(customerId, List.of(productId)) > 0) return true;
+        // Nothing inserted: either the product does not exist or a concurrent request added it.
+        if (!productRepository.existsById(productId)) throw new ResourceNotFoundException("Product not found");
+        return true;
+    }
+
+    @Transactional
+    public FavoriteBatchResultDTO apply(Integer customerId, FavoriteBatchRequestDTO request) {
+        Set<Long> toAdd = distinct(request.getAdd());
+        Set<Long> toRemove = distinct(request.getRemove());
+        if (toAdd.size() + toRemove.size() > batchMaxSize)
+            throw new BadRequestException("At most " + batchMaxSize + " favorites can be changed at once.");
+        if (!Collections.disjoint(toAdd, toRemove))
+            throw new BadRequestException("A product cannot be added and removed in the same request.");
+
+        int removed = toRemove.isEmpty() ? 0 : favoriteProductRepository.deleteAll(customerId, toRemove);
+        int added = toAdd.isEmpty() ? 0 : favoriteProductRepository.insertAll(customerId, toAdd);
+
+        return FavoriteBatchResultDTO.builder()
+                .added(added)
+                .removed(removed)
+                .favorites(favoriteProductRepository.findProductIdsByCustomerId(customerId))
+                .build();
+    }
+
+    public List<Long> getFavoriteIds(Integer customerId) {
+        return favoriteProductRepository.findProductIdsByCustomerId(customerId);
+    }
+
+    public List<ProductDTO> getFavoriteProducts(Integer customerId) {
+        return favoriteProductRepository.findProductsByCustomerId(customerId).stream()
+                .map(Product::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public void deleteAllForCustomer(Integer customerId) {
+        favoriteProductRepository.deleteAllByCustomerId(customerId);
+    }
+
+    public void deleteAllForProduct(Long productId) {
+        favoriteProductRepository.deleteAllByProductId(productId);
+    }
+
+    private static Set<Long> distinct(List<Long> ids) {
+        if (ids == null) return Set.of();
+        Set<Long> set = new LinkedHashSet<>(ids);
+        set.remove(null);
+        return set;
+    }
+}
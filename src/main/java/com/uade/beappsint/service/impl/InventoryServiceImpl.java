@@ -0,0 +1,55 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Takes stock with conditional updates, batched in ascending product id order to avoid deadlocks.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+    // Bumping the version makes an admin edit loaded before the decrement fail instead of
+    // writing the old stock back.
+    private static final String DECREMENT_SQL =
+            "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+
+    /**
+     * Decrements every product by its quantity, or none of them: when any product lacks the stock
+     * the transaction is rolled back and a {@link BadRequestException} names the products.
+     */
+    @Transactional
+    public void decrementStock(Map<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(quantities.keySet()));
+        List<Object[]> batch = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            int quantity = quantities.get(id);
+            if (quantity <= 0) throw new BadRequestException("Quantity must be greater than zero");
+            batch.add(new Object[]{quantity, id, quantity});
+        }
+        if (batch.isEmpty()) return;
+
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, batch);
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0 || updated[i] == Statement.EXECUTE_FAILED) rejected.add(ids.get(i));
+        }
+        if (rejected.isEmpty()) return;
+
+        StringJoiner names = new StringJoiner(", ");
+        productRepository.findAllById(rejected).forEach(product -> names.add(product.getName()));
+        throw new BadRequestException("Producto agotado: " + names);
+    }
+}
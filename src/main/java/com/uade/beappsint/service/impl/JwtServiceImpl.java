@@ -1,7 +1,12 @@
 package com.uade.beappsint.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
 import com.uade.beappsint.service.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -10,22 +15,55 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the HS256 session tokens, caching verified tokens by their SHA-256 digest.
+ */
 @Service
 public class JwtServiceImpl implements JwtService {
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    private final long jwtExpiration;
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedTokenDTO> verifiedTokens;
 
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    public JwtServiceImpl(
+            @Value("${security.jwt.secret-key}") String secretKey,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration,
+            @Value("${security.jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize
+    ) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedTokenDTO>() {
+                    public long expireAfterCreate(String key, VerifiedTokenDTO token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.getExpiresAt() - System.currentTimeMillis()));
+                    }
+
+                    public long expireAfterUpdate(String key, VerifiedTokenDTO token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    public long expireAfterRead(String key, VerifiedTokenDTO token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifyToken(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -56,34 +94,63 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Returns the verified view of the token, parsing it only when it is not cached. Parse errors
+     * (malformed, bad signature, expired) are thrown as the usual jjwt exceptions.
+     */
+    public VerifiedTokenDTO verifyToken(String token) {
+        String digest = digest(token);
+        VerifiedTokenDTO verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null && !verified.isExpired(System.currentTimeMillis())) return verified;
+
+        // An expired entry falls through to the parser, which throws ExpiredJwtException.
+        verified = toVerifiedToken(extractAllClaims(token));
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        VerifiedTokenDTO verified = verifyToken(token);
+        return verified.getSubject().equals(userDetails.getUsername()) && !verified.isExpired(System.currentTimeMillis());
     }
 
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verifyToken(token).isExpired(System.currentTimeMillis());
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verifyToken(token).getExpiresAt());
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
+    }
+
+    private static VerifiedTokenDTO toVerifiedToken(Claims claims) {
+        Map<String, Object> copy = new HashMap<>(claims);
+        copy.values().removeIf(value -> value == null);
+        return new VerifiedTokenDTO(
+                claims.getSubject(),
+                claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime(),
+                Map.copyOf(copy)
+        );
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
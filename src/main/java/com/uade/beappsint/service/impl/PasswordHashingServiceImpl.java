@@ -0,0 +1,126 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.auth.PasswordHashingStatsDTO;
+import com.uade.beappsint.exception.ServiceUnavailableException;
+import com.uade.beappsint.service.PasswordHashingService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder running on its own bounded pool. Callers get a 503 when the pool is saturated.
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final int strength;
+    private final int queueCapacity;
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder finishedTasks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingServiceImpl(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.hashing.pool-size:2}") int poolSize,
+            @Value("${security.password.hashing.queue-capacity:32}") int queueCapacity
+    ) {
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Any difference from the configured cost triggers a rehash on the next successful login, so
+    // lowering the strength takes effect as well as raising it.
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public PasswordHashingStatsDTO getStats() {
+        long finished = finishedTasks.sum();
+        return PasswordHashingStatsDTO.builder()
+                .strength(strength)
+                .poolSize(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completedTasks(finished)
+                .rejectedTasks(rejectedTasks.sum())
+                .averageWaitMillis(finished == 0 ? 0 : waitNanos.sum() / 1e6 / finished)
+                .averageRunMillis(finished == 0 ? 0 : runNanos.sum() / 1e6 / finished)
+                .maxRunMillis(TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get()))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long run = System.nanoTime() - started;
+                    waitNanos.add(started - submitted);
+                    runNanos.add(run);
+                    maxRunNanos.accumulate(run);
+                    finishedTasks.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.increment();
+            throw new ServiceUnavailableException("Too many authentication requests, try again shortly.", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Authentication was interrupted, try again shortly.", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.uade.beappsint.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.service.PrincipalCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of authenticated principals keyed by email, evicted when the customer row changes.
+ */
+@Service
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+    private final CustomerRepository customerRepository;
+    private final Cache<String, CustomerPrincipalDTO> principals;
+
+    public PrincipalCacheServiceImpl(
+            CustomerRepository customerRepository,
+            @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.customerRepository = customerRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public CustomerPrincipalDTO getPrincipal(String email) {
+        return principals.get(email, key -> customerRepository.findPrincipalByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+    }
+
+    public void evict(String email) {
+        if (email != null) principals.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        evict(event.getEmail());
+        evict(event.getPreviousEmail());
+    }
+}
@@ -0,0 +1,286 @@
+package com.uade.beappsint.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.beappsint.dto.Product.*;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.service.ProductImportService;
+import com.uade.beappsint.service.ProductSearchIndexService;
+import com.uade.beappsint.service.ProductService;
+import com.uade.beappsint.service.RecommendationIndexService;
+import com.uade.beappsint.utils.CsvUtilities;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Imports a CSV or NDJSON product file while it is uploaded, one JDBC batch and transaction per
+ * chunk. A failing chunk is retried row by row so the report names the refused rows.
+ */
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+    private static final String INSERT_SQL = "INSERT INTO product " +
+            "(name, description, stock, price, category, image_url, views, `year`, director, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+    private static final int DEFAULT_YEAR = 2000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final ProductSearchIndexService productSearchIndexService;
+    private final RecommendationIndexService recommendationIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ProductService productService,
+            ProductSearchIndexService productSearchIndexService,
+            RecommendationIndexService recommendationIndexService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${catalog.import.batch-size:1000}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.productSearchIndexService = productSearchIndexService;
+        this.recommendationIndexService = recommendationIndexService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public ProductImportResultDTO importProducts(InputStream input, DataFormatEnum format) {
+        CustomerPrincipalDTO admin = productService.assertAdmin();
+        ImportRun run = new ImportRun(admin.getId());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            if (format == DataFormatEnum.CSV) readCsv(reader, run);
+            else readNdjson(reader, run);
+        } catch (IOException e) {
+            run.fail(run.rows + 1, "Could not read the file: " + e.getMessage());
+        }
+        run.flush();
+
+        if (run.imported > 0) {
+            eventPublisher.publishEvent(new ProductChangedEvent(null, ProductChangeTypeEnum.IMPORTED, run.categories));
+        }
+        log.info("Imported {} of {} products ({} failed)", run.imported, run.rows, run.failed);
+        return run.result();
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = CsvUtilities.readRecord(reader);
+        if (header == null) return;
+        List<String> columns = header.stream().map(ProductImportServiceImpl::normalizeField).toList();
+
+        List<String> record;
+        while ((record = CsvUtilities.readRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                fields.put(columns.get(i), record.get(i));
+            }
+            run.add(fields);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) throw new IOException("not a JSON object");
+                node.fields().forEachRemaining(entry -> fields.put(normalizeField(entry.getKey()),
+                        entry.getValue().isNull() ? null : entry.getValue().asText()));
+            } catch (IOException e) {
+                run.fail(++run.rows, "Invalid JSON: " + e.getMessage());
+                continue;
+            }
+            run.add(fields);
+        }
+    }
+
+    private static String normalizeField(String field) {
+        return field.trim().replace("_", "").toLowerCase();
+    }
+
+    private static ProductRequestDTO toRequest(Map<String, String> fields) {
+        return ProductRequestDTO.builder()
+                .name(text(fields.get("name")))
+                .description(text(fields.get("description")))
+                .stock(parseInteger(fields.get("stock"), "stock"))
+                .price(parseDouble(fields.get("price"), "price"))
+                .category(text(fields.get("category")))
+                .imageUrl(text(fields.get("imageurl")))
+                .year(parseInteger(fields.get("year"), "year"))
+                .director(text(fields.get("director")))
+                .build();
+    }
+
+    private static String text(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Integer parseInteger(String value, String field) {
+        if (text(value) == null) return null;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static Double parseDouble(String value, String field) {
+        if (text(value) == null) return null;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private final class ImportRun {
+        private final Integer createdBy;
+        private final List<ProductRequestDTO> pending = new ArrayList<>();
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private final Set<String> categories = new HashSet<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        private ImportRun(Integer createdBy) {
+            this.createdBy = createdBy;
+        }
+
+        void add(Map<String, String> fields) {
+            long row = ++rows;
+            ProductRequestDTO request;
+            try {
+                request = toRequest(fields);
+                productService.assertProductRequest(request);
+            } catch (BadRequestException e) {
+                fail(row, e.getMessage());
+                return;
+            }
+
+            pending.add(request);
+            pendingRows.add(row);
+            if (pending.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            try {
+                inserted(pending, insertInTransaction(pending));
+            } catch (DataAccessException | TransactionException batchFailure) {
+                for (int i = 0; i < pending.size(); i++) {
+                    List<ProductRequestDTO> single = List.of(pending.get(i));
+                    try {
+                        inserted(single, insertInTransaction(single));
+                    } catch (DataAccessException | TransactionException e) {
+                        fail(pendingRows.get(i), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ProductImportErrorDTO(row, message));
+        }
+
+        ProductImportResultDTO result() {
+            return ProductImportResultDTO.builder()
+                    .totalRows(rows)
+                    .importedRows(imported)
+                    .failedRows(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        // The indexes are only told about rows once their transaction has committed.
+        private List<Long> insertInTransaction(List<ProductRequestDTO> batch) {
+            return transactionTemplate.execute(status -> insert(batch));
+        }
+
+        private List<Long> insert(List<ProductRequestDTO> batch) {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            ProductRequestDTO request = batch.get(i);
+                            statement.setString(1, request.getName());
+                            statement.setString(2, request.getDescription());
+                            statement.setInt(3, request.getStock());
+                            statement.setDouble(4, request.getPrice());
+                            statement.setString(5, request.getCategory());
+                            statement.setString(6, request.getImageUrl());
+                            statement.setInt(7, request.getYear() != null ? request.getYear() : DEFAULT_YEAR);
+                            statement.setString(8, request.getDirector());
+                            if (createdBy != null) statement.setInt(9, createdBy);
+                            else statement.setNull(9, Types.INTEGER);
+                        }
+
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keys);
+            return keys.getKeyList().stream()
+                    .map(key -> ((Number) key.values().iterator().next()).longValue())
+                    .toList();
+        }
+
+        private void inserted(List<ProductRequestDTO> batch, List<Long> ids) {
+            for (int i = 0; i < batch.size() && i < ids.size(); i++) {
+                ProductRequestDTO request = batch.get(i);
+                Long id = ids.get(i);
+                int year = request.getYear() != null ? request.getYear() : DEFAULT_YEAR;
+                productSearchIndexService.index(new ProductSearchDocumentDTO(
+                        id, request.getName(), request.getDescription(), request.getDirector(), request.getCategory()));
+                recommendationIndexService.index(new ProductFeaturesDTO(id, request.getCategory(), year, request.getDirector()));
+                if (request.getCategory() != null) categories.add(request.getCategory());
+            }
+            imported += batch.size();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.Product.ProductSearchDocumentDTO;
+import com.uade.beappsint.dto.Product.ProductSearchHitDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.ProductSearchIndexService;
+import com.uade.beappsint.utils.TextUtilities;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory BM25 index over the product text fields. The last query token also matches as a prefix.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchIndexServiceImpl implements ProductSearchIndexService {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DIRECTOR_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documentTerms = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private double totalLength;
+    // Latest terms of the products changed while a rebuild reads the table, null for a removal.
+    private Map<Long, Map<String, Float>> changedDuringRebuild;
+
+    public List<ProductSearchHitDTO> search(String query, int limit, Double afterScore, Long afterId) {
+        List<String> tokens = TextUtilities.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) return List.of();
+            double averageLength = totalLength / documentCount;
+
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                scoreTerm(token, 1.0, documentCount, averageLength, scores);
+
+                if (i == tokens.size() - 1) {
+                    int expansions = 0;
+                    for (String term : postings.tailMap(token, false).keySet()) {
+                        if (!term.startsWith(token) || expansions++ >= MAX_PREFIX_EXPANSIONS) break;
+                        scoreTerm(term, PREFIX_MATCH_FACTOR, documentCount, averageLength, scores);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return topHits(scores, limit, afterScore, afterId);
+    }
+
+    public void index(ProductSearchDocumentDTO document) {
+        Map<String, Float> terms = terms(document);
+        lock.writeLock().lock();
+        try {
+            indexUnlocked(document.getId(), terms);
+            if (changedDuringRebuild != null) changedDuringRebuild.put(document.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+            if (changedDuringRebuild != null) changedDuringRebuild.put(productId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The table is read without the lock, so changes indexed meanwhile are replayed on top of what was read.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        setChangedDuringRebuild(new HashMap<>());
+        List<ProductSearchDocumentDTO> documents = new ArrayList<>();
+        try {
+            Long afterId = 0L;
+            List<ProductSearchDocumentDTO> batch;
+            do {
+                batch = productRepository.findSearchDocuments(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                documents.addAll(batch);
+                if (!batch.isEmpty()) afterId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            setChangedDuringRebuild(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            totalLength = 0;
+            documents.forEach(document -> indexUnlocked(document.getId(), terms(document)));
+            changedDuringRebuild.forEach((productId, terms) -> {
+                if (terms == null) removeUnlocked(productId);
+                else indexUnlocked(productId, terms);
+            });
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} documents", documents.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        switch (event.getType()) {
+            case CREATED, UPDATED -> productRepository.findSearchDocumentById(productId)
+                    .ifPresentOrElse(this::index, () -> remove(productId));
+            case DELETED -> remove(productId);
+            default -> {
+                // Images and stock are not indexed; bulk imports index their rows directly.
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scoreTerm(String term, double factor, int documentCount, double averageLength, Map<Long, Double> scores) {
+        Map<Long, Float> posting = postings.get(term);
+        if (posting == null) return;
+
+        int documentFrequency = posting.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+            double frequency = entry.getValue();
+            double length = documentLengths.get(entry.getKey());
+            double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+            scores.merge(entry.getKey(), score * factor, Double::sum);
+        }
+    }
+
+    // Keeps only the best "limit" hits after the cursor, ordered by score desc and id asc.
+    private List<ProductSearchHitDTO> topHits(Map<Long, Double> scores, int limit, Double afterScore, Long afterId) {
+        Comparator<ProductSearchHitDTO> ranking = Comparator
+                .comparingDouble(ProductSearchHitDTO::getScore).reversed()
+                .thenComparing(ProductSearchHitDTO::getProductId);
+        PriorityQueue<ProductSearchHitDTO> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            double score = entry.getValue();
+            Long productId = entry.getKey();
+            if (afterScore != null && (score > afterScore || (score == afterScore && productId <= afterId))) continue;
+
+            best.add(new ProductSearchHitDTO(productId, score));
+            if (best.size() > limit) best.poll();
+        }
+
+        List<ProductSearchHitDTO> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    private void setChangedDuringRebuild(Map<Long, Map<String, Float>> changes) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, Float> terms(ProductSearchDocumentDTO document) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, document.getName(), NAME_WEIGHT);
+        addField(terms, document.getDirector(), DIRECTOR_WEIGHT);
+        addField(terms, document.getCategory(), CATEGORY_WEIGHT);
+        addField(terms, document.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : TextUtilities.tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void indexUnlocked(Long productId, Map<String, Float> terms) {
+        removeUnlocked(productId);
+        float length = 0;
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(productId, term.getValue());
+            length += term.getValue();
+        }
+        documentTerms.put(productId, terms);
+        documentLengths.put(productId, length);
+        totalLength += length;
+    }
+
+    private void removeUnlocked(Long productId) {
+        Map<String, Float> terms = documentTerms.remove(productId);
+        if (terms == null) return;
+
+        for (String term : terms.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(productId);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+        totalLength -= documentLengths.remove(productId);
+    }
+}
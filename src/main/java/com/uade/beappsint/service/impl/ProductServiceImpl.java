@@ -1,50 +1,88 @@
 package com.uade.beappsint.service.impl;
 
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.CacheStatsDTO;
 import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchRequestDTO;
+import com.uade.beappsint.dto.Product.FavoriteBatchResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSearchHitDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
 import com.uade.beappsint.dto.ProductDTO;
-import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 import com.uade.beappsint.entity.Product;
 import com.uade.beappsint.entity.Image;
+import com.uade.beappsint.enums.ProductActivityTypeEnum;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.enums.ProductSortFieldEnum;
+import com.uade.beappsint.enums.TrendingWindowEnum;
+import com.uade.beappsint.event.ProductActivityEvent;
+import com.uade.beappsint.event.ProductChangedEvent;
 import com.uade.beappsint.exception.BadRequestException;
 import com.uade.beappsint.exception.ResourceNotFoundException;
-import com.uade.beappsint.repository.CustomerRepository;
 import com.uade.beappsint.repository.ImageRepository;
 import com.uade.beappsint.repository.ProductRepository;
 import com.uade.beappsint.service.AuthService;
+import com.uade.beappsint.service.CatalogCacheService;
 import com.uade.beappsint.service.CloudinaryService;
+import com.uade.beappsint.service.FavoriteService;
+import com.uade.beappsint.service.ProductSearchIndexService;
 import com.uade.beappsint.service.ProductService;
+import com.uade.beappsint.service.ProductViewCounterService;
+import com.uade.beappsint.service.RecentlyViewedService;
+import com.uade.beappsint.service.RecommendationIndexService;
+import com.uade.beappsint.service.TrendingService;
+import com.uade.beappsint.utils.CursorUtilities;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_TEXT_CANDIDATES = 1000;
+
     private final ProductRepository productRepository;
-    private final CustomerRepository customerRepository;
     private final ImageRepository imageRepository;
     private final AuthService authService;
     private final CloudinaryService cloudinaryService;
-
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    private final CatalogCacheService catalogCacheService;
+    private final ProductSearchIndexService productSearchIndexService;
+    private final RecommendationIndexService recommendationIndexService;
+    private final ProductViewCounterService productViewCounterService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final FavoriteService favoriteService;
+    private final TrendingService trendingService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CursorPageDTO<ProductSummaryDTO> getAllProducts(Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        return toPage(productRepository.findSummaries(decodeAfterId(after), Limit.of(pageSize + 1)), pageSize, false);
     }
 
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
-        return product.toDTO();
+        return catalogCacheService.getProduct(id, () -> {
+            Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
+            return product.toDTO();
+        });
     }
 
     public ProductDTO createProduct(ProductRequestDTO productRequest) {
@@ -60,10 +98,11 @@ public class ProductServiceImpl implements ProductService {
                 .imageUrl(productRequest.getImageUrl())
                 .year(productRequest.getYear() != null ? productRequest.getYear() : 2000)
                 .director(productRequest.getDirector())
-                .createdBy(authService.getAuthenticatedCustomer())
+                .createdBy(authService.getAuthenticatedCustomerReference())
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        publishProductChanged(savedProduct.getId(), ProductChangeTypeEnum.CREATED, savedProduct.getCategory());
         return savedProduct.toDTO();
     }
 
@@ -82,18 +121,21 @@ public class ProductServiceImpl implements ProductService {
                 .imageUrl(cloudinaryUrl)
                 .year(productRequest.getYear() != null ? productRequest.getYear() : 2000)
                 .director(productRequest.getDirector())
-                .createdBy(authService.getAuthenticatedCustomer())
+                .createdBy(authService.getAuthenticatedCustomerReference())
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        publishProductChanged(savedProduct.getId(), ProductChangeTypeEnum.CREATED, savedProduct.getCategory());
         return savedProduct.toDTO();
     }
 
     public ProductDTO updateProduct(Long id, ProductRequestDTO productDetails) {
-        Customer customer = assertAdmin();
-        isProductCreator(id, customer);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(id, customer.getId());
         Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
         assertProductRequest(productDetails);
+        assertCurrentVersion(product, productDetails);
+        String previousCategory = product.getCategory();
 
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
@@ -102,14 +144,17 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(productDetails.getCategory());
         product.setImageUrl(productDetails.getImageUrl());
         Product updatedProduct = productRepository.save(product);
+        publishProductChanged(id, ProductChangeTypeEnum.UPDATED, previousCategory, updatedProduct.getCategory());
         return updatedProduct.toDTO();
     }
 
     public ProductDTO updateProduct_v2(Long id, ProductRequestDTO productDetails) {
-        Customer customer = assertAdmin();
-        isProductCreator(id, customer);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(id, customer.getId());
         Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
         assertProductRequest(productDetails);
+        assertCurrentVersion(product, productDetails);
+        String previousCategory = product.getCategory();
 
         String imageUrl;
 
@@ -126,108 +171,213 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(productDetails.getCategory());
         product.setImageUrl(imageUrl);
         Product updatedProduct = productRepository.save(product);
+        publishProductChanged(id, ProductChangeTypeEnum.UPDATED, previousCategory, updatedProduct.getCategory());
         return updatedProduct.toDTO();
     }
 
+    // An update sets the stock to an absolute value, so without the version it was based on it could
+    // write back stock a checkout has taken since. Hibernate ignores a version set on a managed entity,
+    // so an older one is rejected here; @Version still guards the window between this read and the commit.
+    private static void assertCurrentVersion(Product product, ProductRequestDTO productDetails) {
+        if (productDetails.getVersion() == null)
+            throw new BadRequestException("Version is required to update a product");
+        if (productDetails.getVersion() != product.getVersion())
+            throw new OptimisticLockingFailureException("Product " + product.getId() + " was modified after it was read");
+    }
+
     public void deleteProduct(Long id) {
-        assertAdmin();
-        isProductCreator(id, authService.getAuthenticatedCustomer());
-        productRepository.deleteAllByProductId(id);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(id, customer.getId());
+        String category = productRepository.findById(id).map(Product::getCategory).orElse(null);
+        recentlyViewedService.deleteAllForProduct(id);
+        favoriteService.deleteAllForProduct(id);
         productRepository.deleteById(id);
+        publishProductChanged(id, ProductChangeTypeEnum.DELETED, category);
     }
 
     public void viewProduct(Long productId) {
-        Customer customer = authService.getAuthenticatedCustomer();
-        Product product = productRepository.findById(productId).orElseThrow(() -> new RuntimeException("Product not found"));
-
-        boolean customerAlreadyViewed = !customer.getRecentlyViewedProducts()
-                .stream()
-                .filter(prod -> prod.getId().equals(product.getId()))
-                .toList()
-                .isEmpty();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
+        ProductDTO viewed = getProductById(productId);
 
-        product.setViews(product.getViews() + 1);
-        productRepository.save(product);
+        // Views are flushed to the database in batches; repeated views inside the debounce window are ignored.
+        if (!productViewCounterService.recordView(productId, customer.getId())) return;
+        eventPublisher.publishEvent(new ProductActivityEvent(productId, viewed.getCategory(), ProductActivityTypeEnum.VIEW, 1));
+        recentlyViewedService.recordView(customer.getId(), productId);
+    }
 
-        if (customerAlreadyViewed) return;
+    public List<ProductDTO> getFeaturedProducts(String category, String window) {
+        List<ProductDTO> featured = new ArrayList<>();
+        for (Long id : trendingService.getTrending(category, resolveTrendingWindow(window))) {
+            ProductDTO product = catalogCacheService.getProduct(id, () -> productRepository.findById(id).map(Product::toDTO).orElse(null));
+            if (product != null) featured.add(product);
+        }
+        if (category != null || featured.size() >= trendingService.getTopN()) return featured;
 
-        customer.getRecentlyViewedProducts().add(product);
-        customerRepository.save(customer);
+        // Until enough activity is recorded, the homepage is filled with the all-time most viewed products.
+        Set<Long> trendingIds = featured.stream().map(ProductDTO::getId).collect(Collectors.toSet());
+        for (ProductDTO product : getAllTimeFeaturedProducts()) {
+            if (featured.size() >= trendingService.getTopN()) break;
+            if (!trendingIds.contains(product.getId())) featured.add(product);
+        }
+        return featured;
     }
 
-    public List<ProductDTO> getFeaturedProducts() {
-        return productRepository.findTop10ByOrderByViewsDesc()
+    private List<ProductDTO> getAllTimeFeaturedProducts() {
+        return catalogCacheService.getFeaturedProducts(() -> productRepository.findTop10ByOrderByViewsDesc()
                 .stream()
                 .map(Product::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
-    public List<ProductDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category)
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    private TrendingWindowEnum resolveTrendingWindow(String window) {
+        if (window == null || window.isBlank()) return TrendingWindowEnum.DAY;
+        try {
+            return TrendingWindowEnum.valueOf(window.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid trending window. Use one of: " + Arrays.toString(TrendingWindowEnum.values()));
+        }
     }
 
-    public List<ProductDTO> getRecentlyViewedProducts() {
-        Customer customer = authService.getAuthenticatedCustomer();
-        return customer.getRecentlyViewedProducts()
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> getProductsByCategory(String category, Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        return catalogCacheService.getCategoryPage(category, pageSize, after, () ->
+                toPage(productRepository.findSummariesByCategory(category, decodeAfterId(after), Limit.of(pageSize + 1)), pageSize, false));
     }
 
-    public Customer assertAdmin() {
-        Customer customer = authService.getAuthenticatedCustomer();
+    public CursorPageDTO<RecentlyViewedProductDTO> getRecentlyViewedProducts(Integer limit, String after) {
+        return recentlyViewedService.getPage(authService.getAuthenticatedPrincipal().getId(), resolvePageSize(limit), after);
+    }
+
+    public CustomerPrincipalDTO assertAdmin() {
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         if (!customer.isAdmin()) {
             throw new RuntimeException("Access denied: only administrators can perform this action.");
         }
         return customer;
     }
 
-    public void isProductCreator(Long productId, Customer customer) {
+    public void isProductCreator(Long productId, Integer customerId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new BadRequestException("Product not found"));
 
-        if (!product.getCreatedBy().getId().equals(customer.getId())) {
+        if (!product.getCreatedBy().getId().equals(customerId)) {
             throw new RuntimeException("Access denied: you are not the creator of this product.");
         }
     }
 
-    public List<ProductDTO> searchProductsByName(String partialName) {
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(partialName);
-        return products.stream().map(Product::toDTO).collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> searchProductsByName(String partialName, Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        Double afterScore = after == null || after.isBlank() ? null : decodeAfterNumber(after, 0);
+        List<ProductSearchHitDTO> hits = productSearchIndexService.search(partialName, pageSize + 1, afterScore, decodeAfterId(after));
+
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) hits = hits.subList(0, pageSize);
+
+        Map<Long, ProductSummaryDTO> rows = hits.isEmpty() ? Map.of() : productRepository
+                .findSummariesByIdIn(hits.stream().map(ProductSearchHitDTO::getProductId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, row -> row));
+
+        List<ProductSummaryDTO> items = hits.stream()
+                .map(hit -> rows.get(hit.getProductId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        ProductSearchHitDTO last = hits.isEmpty() ? null : hits.get(hits.size() - 1);
+        return CursorPageDTO.<ProductSummaryDTO>builder()
+                .items(items)
+                .nextCursor(hasMore ? CursorUtilities.encode(last.getScore(), last.getProductId()) : null)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    public ProductQueryResultDTO queryProducts(ProductQueryDTO query) {
+        int pageSize = resolvePageSize(query.getLimit());
+        ProductSortFieldEnum sort = resolveSortField(query.getSort());
+        boolean descending = resolveDescending(query.getDirection());
+        assertProductQuery(query);
+
+        // The text filter is answered by the search index and narrows the SQL query to its best hits.
+        List<Long> textIds = null;
+        boolean truncated = false;
+        if (query.getText() != null && !query.getText().isBlank()) {
+            textIds = productSearchIndexService.search(query.getText(), MAX_TEXT_CANDIDATES + 1, null, null)
+                    .stream()
+                    .map(ProductSearchHitDTO::getProductId)
+                    .toList();
+            truncated = textIds.size() > MAX_TEXT_CANDIDATES;
+            if (truncated) textIds = textIds.subList(0, MAX_TEXT_CANDIDATES);
+            if (textIds.isEmpty()) {
+                return ProductQueryResultDTO.builder()
+                        .page(toPage(new ArrayList<>(), pageSize, false))
+                        .categories(new ArrayList<>())
+                        .decades(new ArrayList<>())
+                        .build();
+            }
+        }
+
+        boolean hasCursor = query.getAfter() != null && !query.getAfter().isBlank();
+        Long afterId = hasCursor ? CursorUtilities.decodeId(query.getAfter()) : null;
+        Object afterValue = hasCursor ? decodeSortValue(query.getAfter(), sort) : null;
+
+        List<ProductSummaryDTO> rows = productRepository.findSummaries(query, textIds, sort, descending, afterValue, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = CursorUtilities.encode(sortValue(last, sort), last.getId());
+        }
+
+        CursorPageDTO<ProductSummaryDTO> page = CursorPageDTO.<ProductSummaryDTO>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+
+        return ProductQueryResultDTO.builder()
+                .page(page)
+                .categories(productRepository.countByCategory(query, textIds))
+                .decades(productRepository.countByDecade(query, textIds))
+                .truncated(truncated)
+                .build();
     }
 
-    public List<ProductDTO> getRecommendations(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    public List<ProductSummaryDTO> getRecommendations(Long productId, Integer limit) {
+        if (!recommendationIndexService.contains(productId)) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        if (limit != null && limit <= 0) throw new BadRequestException("Limit must be greater than zero");
 
-        List<Product> recommendationsByCategory = productRepository.findRecommendationsByCategory(product.getCategory(), productId);
-        List<Product> recommendationsByDecade = productRepository.findRecommendationsByDecade(product.getYear() - 10, product.getYear(), productId);
-        List<Product> recommendationsByDirector = productRepository.findRecommendationsByDirector(product.getDirector(), productId);
+        List<Long> recommendedIds = recommendationIndexService.getRecommendations(
+                productId, limit == null ? recommendationIndexService.getTopK() : limit);
+        if (recommendedIds.isEmpty()) return new ArrayList<>();
 
-        Set<Product> recommendations = new HashSet<>(recommendationsByCategory);
-        recommendations.addAll(recommendationsByDecade);
-        recommendations.addAll(recommendationsByDirector);
+        Map<Long, ProductSummaryDTO> rows = productRepository.findSummariesByIdIn(recommendedIds)
+                .stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, row -> row));
 
-        return recommendations.stream()
-                .map(Product::toDTO)
+        return recommendedIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     public List<ImageDTO> getImagesByProductId(Long productId) {
-        List<Image> images = productRepository.findImagesByProductId(productId);
-        return images.stream()
+        return catalogCacheService.getImages(productId, () -> productRepository.findImagesByProductId(productId)
+                .stream()
                 .map(Image::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional
     public void addImageToProduct(Long productId, ImageDTO imageDTO) {
 
-        Customer customer = assertAdmin();
-        isProductCreator(productId, customer);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(productId, customer.getId());
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
@@ -237,13 +387,14 @@ public class ProductServiceImpl implements ProductService {
         newImage.setProduct(product);
 
         imageRepository.save(newImage);
+        publishProductChanged(productId, ProductChangeTypeEnum.IMAGES_CHANGED);
     }
 
     @Transactional
     public void addImageToProduct_v2(Long productId, ImageDTO imageDTO) {
 
-        Customer customer = assertAdmin();
-        isProductCreator(productId, customer);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(productId, customer.getId());
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
@@ -253,54 +404,47 @@ public class ProductServiceImpl implements ProductService {
         newImage.setProduct(product);
 
         imageRepository.save(newImage);
+        publishProductChanged(productId, ProductChangeTypeEnum.IMAGES_CHANGED);
     }
 
     public void changeMainImageOfProduct(Long productId, ImageDTO imageDTO) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
-        Customer customer = assertAdmin();
-        isProductCreator(productId, customer);
+        CustomerPrincipalDTO customer = assertAdmin();
+        isProductCreator(productId, customer.getId());
         productRepository.addImageToProduct(imageDTO.getUrl(), productId);
+        publishProductChanged(productId, ProductChangeTypeEnum.IMAGES_CHANGED, product.getCategory());
     }
 
     public GenericResponseDTO toggleFavorite(Long productId) {
-        Customer customer = authService.getAuthenticatedCustomer();
-        Product product = productRepository.findById(productId).orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-
-        List<Product> favoriteProducts = customer.getFavoriteProducts();
-
-        if (favoriteProducts.stream().anyMatch(prod -> prod.getId().equals(productId))) {
-            customer.setFavoriteProducts(favoriteProducts.stream().filter(prod -> !prod.getId().equals(productId)).collect(Collectors.toList()));
-        } else {
-            favoriteProducts.add(product);
-        }
-
-        customerRepository.save(customer);
+        favoriteService.toggle(authService.getAuthenticatedPrincipal().getId(), productId);
 
         return GenericResponseDTO.builder()
                 .message("OK")
                 .build();
     }
 
-    public List<Long> getFavorites() {
-        Customer customer = authService.getAuthenticatedCustomer();
-        List<Long> productIdList = new ArrayList<>();
-        List<Product> favoriteProducts = customer.getFavoriteProducts();
-
-        for (Product product : favoriteProducts) {
-            productIdList.add(product.getId());
-        }
+    public FavoriteBatchResultDTO updateFavorites(FavoriteBatchRequestDTO request) {
+        return favoriteService.apply(authService.getAuthenticatedPrincipal().getId(), request);
+    }
 
-        return productIdList;
+    public List<Long> getFavorites() {
+        return favoriteService.getFavoriteIds(authService.getAuthenticatedPrincipal().getId());
     }
 
     @Transactional
     public void removeProductSecondaryImages(Long productId) {
-        Customer customer = assertAdmin();
+        CustomerPrincipalDTO customer = assertAdmin();
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new BadRequestException("Product not found"));
-        isProductCreator(productId, customer);
+        isProductCreator(productId, customer.getId());
         imageRepository.deleteAllByProductId(productId);
+        publishProductChanged(productId, ProductChangeTypeEnum.IMAGES_CHANGED);
+    }
+
+    public List<CacheStatsDTO> getCatalogCacheStats() {
+        assertAdmin();
+        return catalogCacheService.getStats();
     }
 
     public void assertProductRequest(ProductRequestDTO productRequest) throws BadRequestException {
@@ -330,33 +474,126 @@ public class ProductServiceImpl implements ProductService {
 
 
 
-    public List<ProductDTO> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice)
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> getProductsByPriceRange(Double minPrice, Double maxPrice, Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        List<ProductSummaryDTO> rows = productRepository.findSummariesByPriceBetween(
+                minPrice, maxPrice, decodeAfterPrice(after), decodeAfterId(after), Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, true);
     }
 
-    public List<ProductDTO> getProductsByCategories(List<String> categories) {
-        return productRepository.findByCategoryIn(categories)
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> getProductsByCategories(List<String> categories, Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        return toPage(productRepository.findSummariesByCategoryIn(categories, decodeAfterId(after), Limit.of(pageSize + 1)), pageSize, false);
     }
 
-    public List<ProductDTO> getProductsInStock() {
-        return productRepository.findByStockGreaterThan(0)
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> getProductsInStock(Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        return toPage(productRepository.findSummariesInStock(decodeAfterId(after), Limit.of(pageSize + 1)), pageSize, false);
     }
 
-    public List<ProductDTO> getProductsAbovePrice(Double price) {
-        return productRepository.findByPriceGreaterThan(price)
-                .stream()
-                .map(Product::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProductSummaryDTO> getProductsAbovePrice(Double price, Integer limit, String after) {
+        int pageSize = resolvePageSize(limit);
+        List<ProductSummaryDTO> rows = productRepository.findSummariesByPriceGreaterThan(
+                price, decodeAfterPrice(after), decodeAfterId(after), Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, true);
     }
 
+    private void publishProductChanged(Long productId, ProductChangeTypeEnum type, String... categories) {
+        Set<String> affectedCategories = Arrays.stream(categories)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, type, affectedCategories));
+    }
 
+    private void assertProductQuery(ProductQueryDTO query) {
+        if (query.getMinPrice() != null && query.getMaxPrice() != null && query.getMinPrice() > query.getMaxPrice())
+            throw new BadRequestException("Min price must not be greater than max price");
+        if (query.getMinYear() != null && query.getMaxYear() != null && query.getMinYear() > query.getMaxYear())
+            throw new BadRequestException("Min year must not be greater than max year");
+        if (query.getDecade() != null && query.getDecade() % 10 != 0)
+            throw new BadRequestException("Decade must be a multiple of 10");
+    }
+
+    private ProductSortFieldEnum resolveSortField(String sort) {
+        if (sort == null || sort.isBlank()) return ProductSortFieldEnum.ID;
+        try {
+            return ProductSortFieldEnum.valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sort. Use one of: " + Arrays.toString(ProductSortFieldEnum.values()));
+        }
+    }
+
+    private boolean resolveDescending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) return false;
+        if (direction.equalsIgnoreCase("desc")) return true;
+        throw new BadRequestException("Invalid direction. Use asc or desc");
+    }
+
+    private Object sortValue(ProductSummaryDTO product, ProductSortFieldEnum sort) {
+        return switch (sort) {
+            case ID -> null;
+            case PRICE -> product.getPrice();
+            case YEAR -> product.getYear();
+            case VIEWS -> product.getViews();
+            case NAME -> product.getName();
+        };
+    }
+
+    private Object decodeSortValue(String after, ProductSortFieldEnum sort) {
+        String value = CursorUtilities.decodeSortValue(after);
+        try {
+            return switch (sort) {
+                case ID -> null;
+                case PRICE -> Double.parseDouble(value);
+                case YEAR, VIEWS -> Integer.parseInt(value);
+                case NAME -> value;
+            };
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit <= 0) throw new BadRequestException("Limit must be greater than zero");
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private Long decodeAfterId(String after) {
+        return after == null || after.isBlank() ? 0L : CursorUtilities.decodeId(after);
+    }
+
+    private Double decodeAfterPrice(String after) {
+        return decodeAfterNumber(after, -Double.MAX_VALUE);
+    }
+
+    private Double decodeAfterNumber(String after, double defaultValue) {
+        if (after == null || after.isBlank()) return defaultValue;
+        try {
+            return Double.parseDouble(CursorUtilities.decodeSortValue(after));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    // Rows are fetched with one extra element so we know whether another page exists.
+    private CursorPageDTO<ProductSummaryDTO> toPage(List<ProductSummaryDTO> rows, int pageSize, boolean sortedByPrice) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = sortedByPrice
+                    ? CursorUtilities.encode(last.getPrice(), last.getId())
+                    : CursorUtilities.encode(last.getId());
+        }
+
+        return CursorPageDTO.<ProductSummaryDTO>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
 }
@@ -0,0 +1,136 @@
+package com.uade.beappsint.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.service.ProductViewCounterService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts product views in memory and flushes the deltas to the database as one JDBC batch.
+ */
+@Slf4j
+@Service
+public class ProductViewCounterServiceImpl implements ProductViewCounterService {
+    private static final String FLUSH_SQL = "UPDATE product SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Cache<ViewKey, Boolean> recentViews;
+    private final Map<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+
+    public ProductViewCounterServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.views.debounce-seconds:600}") long debounceSeconds,
+            @Value("${catalog.views.debounce-maximum-size:100000}") long debounceMaximumSize,
+            @Value("${catalog.views.flush-batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.recentViews = Caffeine.newBuilder()
+                .maximumSize(debounceMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(debounceSeconds))
+                .build();
+    }
+
+    /**
+     * Returns false when the same customer already viewed the product inside the debounce window,
+     * in which case nothing is counted.
+     */
+    public boolean recordView(Long productId, Integer customerId) {
+        if (customerId != null && recentViews.asMap().putIfAbsent(new ViewKey(customerId, productId), Boolean.TRUE) != null) {
+            return false;
+        }
+        counters.computeIfAbsent(productId, id -> new ViewCounter()).total.increment();
+        return true;
+    }
+
+    public long getPendingViews(Long productId) {
+        ViewCounter counter = counters.get(productId);
+        if (counter == null) return 0;
+        synchronized (this) {
+            return counter.total.sum() - counter.flushed;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.views.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<ViewCounter> flushedCounters = new ArrayList<>();
+        List<Long> flushedTotals = new ArrayList<>();
+
+        counters.forEach((productId, counter) -> {
+            long total = counter.total.sum();
+            long delta = total - counter.flushed;
+            if (delta <= 0) return;
+            batch.add(new Object[]{delta, productId});
+            flushedCounters.add(counter);
+            flushedTotals.add(total);
+        });
+
+        // Each chunk commits on its own and only then marks its counters as flushed, so a failed
+        // chunk is retried on the next run without counting the committed ones twice.
+        int flushed = 0;
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, batch.size());
+            List<Object[]> chunk = batch.subList(from, to);
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, chunk, chunk.size(), (statement, row) -> {
+                    statement.setLong(1, (Long) row[0]);
+                    statement.setLong(2, (Long) row[1]);
+                }));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Could not flush {} product view counters, retrying on next run", batch.size() - from, e);
+                return flushed;
+            }
+            for (int i = from; i < to; i++) {
+                flushedCounters.get(i).flushed = flushedTotals.get(i);
+            }
+            flushed += chunk.size();
+        }
+        return flushed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed {} product view counters on shutdown", flushed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangeTypeEnum.DELETED) {
+            counters.remove(event.getProductId());
+        }
+    }
+
+    private static class ViewCounter {
+        private final LongAdder total = new LongAdder();
+        // Only read and written while holding the service lock.
+        private long flushed;
+    }
+
+    private record ViewKey(Integer customerId, Long productId) {
+    }
+}
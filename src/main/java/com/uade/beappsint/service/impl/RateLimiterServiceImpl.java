@@ -0,0 +1,90 @@
+package com.uade.beappsint.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uade.beappsint.enums.RateLimitScopeEnum;
+import com.uade.beappsint.service.RateLimiterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory lock-free token buckets, one per scope and key.
+ */
+@Service
+public class RateLimiterServiceImpl implements RateLimiterService {
+    private final Map<RateLimitScopeEnum, Limit> limits = new EnumMap<>(RateLimitScopeEnum.class);
+    private final Map<RateLimitScopeEnum, LongAdder> rejections = new EnumMap<>(RateLimitScopeEnum.class);
+    private final Cache<String, Bucket> buckets;
+
+    public RateLimiterServiceImpl(
+            Environment environment,
+            @Value("${security.rate-limit.maximum-buckets:100000}") long maximumBuckets,
+            @Value("${security.rate-limit.idle-seconds:900}") long idleSeconds
+    ) {
+        for (RateLimitScopeEnum scope : RateLimitScopeEnum.values()) {
+            String prefix = "security.rate-limit." + scope.getKey();
+            long capacity = environment.getProperty(prefix + ".capacity", Long.class, scope.getDefaultCapacity());
+            long refillPerMinute = environment.getProperty(prefix + ".refill-per-minute", Long.class, scope.getDefaultRefillPerMinute());
+            limits.put(scope, new Limit(capacity, refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1)));
+            rejections.put(scope, new LongAdder());
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .build();
+    }
+
+    /**
+     * Takes one token from the bucket of the key. Returns 0 when the request may go on, or the
+     * number of seconds until a token is available.
+     */
+    public long tryAcquire(RateLimitScopeEnum scope, String key) {
+        Limit limit = limits.get(scope);
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(scope.getKey() + ':' + key, ignored -> new Bucket(limit.capacity(), now));
+        long waitNanos = bucket.tryAcquire(limit, now);
+        if (waitNanos == 0) return 0;
+        rejections.get(scope).increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public Map<String, Long> getRejections() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        rejections.forEach((scope, count) -> counts.put(scope.getKey(), count.sum()));
+        return counts;
+    }
+
+    private record Limit(long capacity, double tokensPerNano) {
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        long tryAcquire(Limit limit, long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(limit.capacity(), current.tokens() + Math.max(0, now - current.updatedAt()) * limit.tokensPerNano());
+                if (tokens < 1) {
+                    return limit.tokensPerNano() <= 0 ? Long.MAX_VALUE / 2 : (long) Math.ceil((1 - tokens) / limit.tokensPerNano());
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) return 0;
+            }
+        }
+    }
+}
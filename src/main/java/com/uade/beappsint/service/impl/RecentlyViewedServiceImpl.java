@@ -0,0 +1,80 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.Product.RecentlyViewedProductDTO;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.RecentlyViewedProductRepository;
+import com.uade.beappsint.service.RecentlyViewedService;
+import com.uade.beappsint.utils.CursorUtilities;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last {@code catalog.recently-viewed.max-size} products viewed by each customer.
+ */
+@Service
+public class RecentlyViewedServiceImpl implements RecentlyViewedService {
+    // Upper bound for the first page; Instant.MAX does not fit a DATETIME column.
+    private static final Instant NEWEST = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final RecentlyViewedProductRepository recentlyViewedProductRepository;
+    private final int maxSize;
+
+    public RecentlyViewedServiceImpl(
+            RecentlyViewedProductRepository recentlyViewedProductRepository,
+            @Value("${catalog.recently-viewed.max-size:20}") int maxSize
+    ) {
+        this.recentlyViewedProductRepository = recentlyViewedProductRepository;
+        this.maxSize = maxSize;
+    }
+
+    @Transactional
+    public void recordView(Integer customerId, Long productId) {
+        recentlyViewedProductRepository.upsert(customerId, productId, Instant.now());
+        recentlyViewedProductRepository.trim(customerId, maxSize);
+    }
+
+    public CursorPageDTO<RecentlyViewedProductDTO> getPage(Integer customerId, int pageSize, String after) {
+        Instant afterViewedAt = NEWEST;
+        Long afterId = Long.MAX_VALUE;
+        if (after != null && !after.isBlank()) {
+            afterId = CursorUtilities.decodeId(after);
+            try {
+                afterViewedAt = Instant.parse(CursorUtilities.decodeSortValue(after));
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+        }
+
+        List<RecentlyViewedProductDTO> rows = recentlyViewedProductRepository.findPage(customerId, afterViewedAt, afterId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<RecentlyViewedProductDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            RecentlyViewedProductDTO last = items.get(items.size() - 1);
+            nextCursor = CursorUtilities.encode(last.getViewedAt(), last.getProduct().getId());
+        }
+
+        return CursorPageDTO.<RecentlyViewedProductDTO>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    public void deleteAllForCustomer(Integer customerId) {
+        recentlyViewedProductRepository.deleteAllByCustomerId(customerId);
+    }
+
+    public void deleteAllForProduct(Long productId) {
+        recentlyViewedProductRepository.deleteAllByProductId(productId);
+    }
+}
@@ -0,0 +1,299 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.dto.Product.ProductFeaturesDTO;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.RecommendationIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Groups products by shared attributes and keeps the top-K recommendation list of every product,
+ * updated in place when a product sharing one of its buckets changes.
+ */
+@Slf4j
+@Service
+public class RecommendationIndexServiceImpl implements RecommendationIndexService {
+    private static final int DIRECTOR_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DECADE_WEIGHT = 1;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Comparator<Recommendation> RANKING = Comparator
+            .comparingInt(Recommendation::score).reversed()
+            .thenComparing(Recommendation::productId);
+
+    private final ProductRepository productRepository;
+    private final int topK;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductFeaturesDTO> features = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> buckets = new HashMap<>();
+    // At most topK entries per product, best first.
+    private final Map<Long, NavigableSet<Recommendation>> recommendations = new HashMap<>();
+    // Latest features of the products changed while a rebuild reads the table, null for a removal.
+    private Map<Long, ProductFeaturesDTO> changedDuringRebuild;
+
+    public RecommendationIndexServiceImpl(
+            ProductRepository productRepository,
+            @Value("${catalog.recommendations.top-k:20}") int topK
+    ) {
+        this.productRepository = productRepository;
+        this.topK = topK;
+    }
+
+    public boolean contains(Long productId) {
+        lock.readLock().lock();
+        try {
+            return features.containsKey(productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> getRecommendations(Long productId, int limit) {
+        int size = Math.min(limit, topK);
+        lock.readLock().lock();
+        try {
+            NavigableSet<Recommendation> ranked = recommendations.get(productId);
+            if (ranked == null) return List.of();
+
+            List<Long> result = new ArrayList<>(Math.min(size, ranked.size()));
+            for (Recommendation recommendation : ranked) {
+                if (result.size() >= size) break;
+                result.add(recommendation.productId());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(ProductFeaturesDTO product) {
+        lock.writeLock().lock();
+        try {
+            indexUnlocked(product);
+            if (changedDuringRebuild != null) changedDuringRebuild.put(product.getId(), product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(productId);
+            if (changedDuringRebuild != null) changedDuringRebuild.put(productId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The table is read without the lock, so changes indexed meanwhile are replayed on top of what was read.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        setChangedDuringRebuild(new HashMap<>());
+        List<ProductFeaturesDTO> products = new ArrayList<>();
+        try {
+            Long afterId = 0L;
+            List<ProductFeaturesDTO> batch;
+            do {
+                batch = productRepository.findFeatures(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                products.addAll(batch);
+                if (!batch.isEmpty()) afterId = batch.get(batch.size() - 1).getId();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            setChangedDuringRebuild(null);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            features.clear();
+            buckets.clear();
+            recommendations.clear();
+            products.forEach(this::addToBucketsUnlocked);
+            features.values().forEach(product -> recommendations.put(product.getId(), computeTopK(product)));
+            changedDuringRebuild.forEach((productId, product) -> {
+                if (product == null) removeUnlocked(productId);
+                else indexUnlocked(product);
+            });
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Recommendation index built with {} products", products.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        switch (event.getType()) {
+            case CREATED, UPDATED -> productRepository.findFeaturesById(productId)
+                    .ifPresentOrElse(this::index, () -> remove(productId));
+            case DELETED -> remove(productId);
+            default -> {
+                // Images and stock do not affect recommendations; bulk imports index their rows directly.
+            }
+        }
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    private NavigableSet<Recommendation> computeTopK(ProductFeaturesDTO product) {
+        Long productId = product.getId();
+        int decade = decadeOf(product.getYear());
+        NavigableSet<Recommendation> result = new TreeSet<>(RANKING);
+
+        // Scores 7 to 4: everything that shares the director.
+        NavigableSet<Long> sameDirector = bucket(directorKey(product.getDirector()));
+        for (Long id : sameDirector) {
+            if (!id.equals(productId)) offer(result, new Recommendation(id, score(product, features.get(id))));
+        }
+
+        // Score 3: same category and decade. Score 2: category only. Score 1: decade only.
+        collect(result, bucket(categoryDecadeKey(product.getCategory(), decade)), 3, id -> !sameDirector.contains(id) && !id.equals(productId));
+        collect(result, bucket(categoryKey(product.getCategory())), 2, id -> !sameDirector.contains(id) && !id.equals(productId)
+                && decadeOf(features.get(id).getYear()) != decade);
+        collect(result, bucket(decadeKey(decade)), 1, id -> !sameDirector.contains(id) && !id.equals(productId)
+                && (product.getCategory() == null || !product.getCategory().equals(features.get(id).getCategory())));
+        return result;
+    }
+
+    // Candidates arrive in id order with equal scores, so a tier stops at the first one that does not fit.
+    private void collect(NavigableSet<Recommendation> result, NavigableSet<Long> candidates, int score, Predicate<Long> filter) {
+        for (Long id : candidates) {
+            if (result.size() >= topK && result.last().score() >= score) return;
+            if (filter.test(id)) offer(result, new Recommendation(id, score));
+        }
+    }
+
+    private void offer(NavigableSet<Recommendation> ranked, Recommendation candidate) {
+        if (ranked.size() < topK) {
+            ranked.add(candidate);
+        } else if (RANKING.compare(candidate, ranked.last()) < 0) {
+            ranked.pollLast();
+            ranked.add(candidate);
+        }
+    }
+
+    private int score(ProductFeaturesDTO product, ProductFeaturesDTO candidate) {
+        int score = 0;
+        if (product.getDirector() != null && product.getDirector().equals(candidate.getDirector())) score += DIRECTOR_WEIGHT;
+        if (product.getCategory() != null && product.getCategory().equals(candidate.getCategory())) score += CATEGORY_WEIGHT;
+        if (decadeOf(product.getYear()) == decadeOf(candidate.getYear())) score += DECADE_WEIGHT;
+        return score;
+    }
+
+    private void setChangedDuringRebuild(Map<Long, ProductFeaturesDTO> changes) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Builds the list of the product and offers the product to the list of every neighbour.
+    private void indexUnlocked(ProductFeaturesDTO product) {
+        removeUnlocked(product.getId());
+        addToBucketsUnlocked(product);
+        recommendations.put(product.getId(), computeTopK(product));
+        for (Long neighbourId : neighbours(product)) {
+            offer(recommendations.get(neighbourId), new Recommendation(product.getId(), score(features.get(neighbourId), product)));
+        }
+    }
+
+    // Only a full list that loses the product can have a replacement outside it, so only those are recomputed.
+    private void removeUnlocked(Long productId) {
+        ProductFeaturesDTO previous = features.remove(productId);
+        recommendations.remove(productId);
+        if (previous == null) return;
+
+        for (String key : bucketKeys(previous)) {
+            NavigableSet<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(productId);
+                if (bucket.isEmpty()) buckets.remove(key);
+            }
+        }
+        for (Long neighbourId : neighbours(previous)) {
+            ProductFeaturesDTO neighbour = features.get(neighbourId);
+            NavigableSet<Recommendation> ranked = recommendations.get(neighbourId);
+            boolean full = ranked.size() >= topK;
+            if (ranked.remove(new Recommendation(productId, score(neighbour, previous))) && full) {
+                recommendations.put(neighbourId, computeTopK(neighbour));
+            }
+        }
+    }
+
+    private void addToBucketsUnlocked(ProductFeaturesDTO product) {
+        features.put(product.getId(), product);
+        for (String key : bucketKeys(product)) {
+            buckets.computeIfAbsent(key, k -> new TreeSet<>()).add(product.getId());
+        }
+    }
+
+    // Every product sharing a bucket; the category+decade bucket is inside the decade one.
+    private Set<Long> neighbours(ProductFeaturesDTO product) {
+        Set<Long> neighbours = new HashSet<>(bucket(decadeKey(decadeOf(product.getYear()))));
+        neighbours.addAll(bucket(directorKey(product.getDirector())));
+        neighbours.addAll(bucket(categoryKey(product.getCategory())));
+        neighbours.remove(product.getId());
+        return neighbours;
+    }
+
+    private NavigableSet<Long> bucket(String key) {
+        if (key == null) return Collections.emptyNavigableSet();
+        return buckets.getOrDefault(key, Collections.emptyNavigableSet());
+    }
+
+    private static List<String> bucketKeys(ProductFeaturesDTO product) {
+        int decade = decadeOf(product.getYear());
+        List<String> keys = new ArrayList<>(4);
+        keys.add(decadeKey(decade));
+        if (product.getDirector() != null) keys.add(directorKey(product.getDirector()));
+        if (product.getCategory() != null) {
+            keys.add(categoryKey(product.getCategory()));
+            keys.add(categoryDecadeKey(product.getCategory(), decade));
+        }
+        return keys;
+    }
+
+    private static int decadeOf(int year) {
+        return year / 10 * 10;
+    }
+
+    private static String directorKey(String director) {
+        return director == null ? null : "director:" + director;
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? null : "category:" + category;
+    }
+
+    private static String decadeKey(int decade) {
+        return "decade:" + decade;
+    }
+
+    private static String categoryDecadeKey(String category, int decade) {
+        return category == null ? null : "category-decade:" + category + ":" + decade;
+    }
+
+    private record Recommendation(Long productId, int score) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.entity.RefreshToken;
+import com.uade.beappsint.exception.JwtFilterException;
+import com.uade.beappsint.repository.RefreshTokenRepository;
+import com.uade.beappsint.service.AuthMetricsService;
+import com.uade.beappsint.service.RefreshTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates the refresh tokens. Only the SHA-256 hash of each token is stored.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AuthMetricsService authMetricsService;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(
+            RefreshTokenRepository refreshTokenRepository,
+            AuthMetricsService authMetricsService,
+            @Value("${security.jwt.refresh-expiration-time:2592000000}") long refreshExpiration
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.authMetricsService = authMetricsService;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    /**
+     * Creates a refresh token for the customer. A null family starts a new one, as on login.
+     */
+    public String issue(Customer customer, String family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .family(family == null ? UUID.randomUUID().toString() : family)
+                .customer(customer)
+                .securityStamp(customer.getSecurityStamp() == null ? 0 : customer.getSecurityStamp())
+                .expiresAt(Instant.now().plusMillis(refreshExpiration))
+                .revoked(false)
+                .build());
+        return rawToken;
+    }
+
+    /**
+     * Validates the token and revokes it, returning the consumed row so the caller can issue the
+     * next one in the same family. A token that was already rotated revokes its whole family.
+     */
+    public RefreshToken consume(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) throw new JwtFilterException("Invalid refresh token.");
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new JwtFilterException("Invalid refresh token."));
+
+        if (token.isRevoked() || refreshTokenRepository.revoke(token.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamily());
+            authMetricsService.recordRefreshTokenReuse();
+            log.warn("Refresh token reused, family {} revoked", token.getFamily());
+            throw new JwtFilterException("Invalid refresh token.");
+        }
+        if (token.getExpiresAt().isBefore(Instant.now())) {
+            throw new JwtFilterException("Session expired.");
+        }
+
+        Customer customer = token.getCustomer();
+        long currentStamp = customer.getSecurityStamp() == null ? 0 : customer.getSecurityStamp();
+        if (currentStamp != token.getSecurityStamp()) {
+            refreshTokenRepository.revokeFamily(token.getFamily());
+            throw new JwtFilterException("Session expired.");
+        }
+        return token;
+    }
+
+    public void revoke(String rawToken) {
+        if (rawToken == null) return;
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamily()));
+    }
+
+    public void deleteAllForCustomer(Integer customerId) {
+        refreshTokenRepository.deleteAllByCustomerId(customerId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    public long getExpirationTime() {
+        return refreshExpiration;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
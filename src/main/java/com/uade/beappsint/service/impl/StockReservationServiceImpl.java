@@ -0,0 +1,170 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.entity.StockReservation;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.StockReservationRepository;
+import com.uade.beappsint.service.StockReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds cart quantities for {@code cart.reservations.ttl-seconds} so they are not sold before checkout.
+ * The available stock of a product is its stock minus the active holds.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+    private final StockReservationRepository stockReservationRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Map<Long, Map<Integer, Hold>> ledger = new ConcurrentHashMap<>();
+
+    public StockReservationServiceImpl(
+            StockReservationRepository stockReservationRepository,
+            @Value("${cart.reservations.enabled:false}") boolean enabled,
+            @Value("${cart.reservations.ttl-seconds:900}") long ttlSeconds
+    ) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Sets the hold of the customer on the product to {@code quantity} and restarts its TTL. A hold
+     * that already covers the quantity is renewed without checking the stock again; otherwise the
+     * stock minus the other customers' holds must cover it.
+     */
+    public void hold(Integer customerId, Product product, int quantity) {
+        if (quantity <= 0) {
+            release(customerId, product.getId());
+            return;
+        }
+        if (!enabled) {
+            if (product.getStock() < quantity) throw outOfStock(product);
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        ledger.compute(product.getId(), (id, holds) -> {
+            Map<Integer, Hold> current = holds == null ? Map.of() : holds;
+            Hold own = current.get(customerId);
+            boolean covered = own != null && own.isActive(now) && own.quantity() >= quantity;
+            if (!covered && product.getStock() - held(current, customerId, now) < quantity) throw outOfStock(product);
+
+            Map<Integer, Hold> next = new HashMap<>(current);
+            next.put(customerId, new Hold(quantity, expiresAt));
+            return Map.copyOf(next);
+        });
+        stockReservationRepository.upsert(customerId, product.getId(), quantity, expiresAt);
+    }
+
+    /**
+     * Lowers the hold of the customer to {@code quantity} without touching its expiry. Lowering
+     * never needs the stock, so the product is not loaded.
+     */
+    public void reduce(Integer customerId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            release(customerId, productId);
+            return;
+        }
+        if (!enabled) return;
+
+        Hold[] reduced = new Hold[1];
+        ledger.computeIfPresent(productId, (id, holds) -> {
+            Hold own = holds.get(customerId);
+            if (own == null || own.quantity() <= quantity) return holds;
+            Map<Integer, Hold> next = new HashMap<>(holds);
+            reduced[0] = new Hold(quantity, own.expiresAt());
+            next.put(customerId, reduced[0]);
+            return Map.copyOf(next);
+        });
+        if (reduced[0] != null) stockReservationRepository.upsert(customerId, productId, quantity, reduced[0].expiresAt());
+    }
+
+    public void release(Integer customerId, Long productId) {
+        if (!enabled) return;
+        ledger.computeIfPresent(productId, (id, holds) -> without(holds, customerId));
+        stockReservationRepository.delete(customerId, productId);
+    }
+
+    public void releaseAll(Integer customerId) {
+        if (!enabled) return;
+        for (Long productId : ledger.keySet()) {
+            ledger.computeIfPresent(productId, (id, holds) -> without(holds, customerId));
+        }
+        stockReservationRepository.deleteAllByCustomerId(customerId);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.reservations.sweep-interval-ms:30000}")
+    public int expireHolds() {
+        if (!enabled) return 0;
+        Instant now = Instant.now();
+        AtomicInteger expired = new AtomicInteger();
+        for (Long productId : ledger.keySet()) {
+            ledger.computeIfPresent(productId, (id, holds) -> {
+                Map<Integer, Hold> active = new HashMap<>(holds);
+                active.values().removeIf(hold -> !hold.isActive(now));
+                expired.addAndGet(holds.size() - active.size());
+                return active.isEmpty() ? null : Map.copyOf(active);
+            });
+        }
+        stockReservationRepository.deleteExpired(now);
+        return expired.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHolds() {
+        if (!enabled) return;
+        Instant now = Instant.now();
+        int loaded = 0;
+        for (StockReservation reservation : stockReservationRepository.findActive(now)) {
+            Hold hold = new Hold(reservation.getQuantity(), reservation.getExpiresAt());
+            ledger.compute(reservation.getProductId(), (id, holds) -> {
+                Map<Integer, Hold> next = holds == null ? new HashMap<>() : new HashMap<>(holds);
+                next.put(reservation.getCustomerId(), hold);
+                return Map.copyOf(next);
+            });
+            loaded++;
+        }
+        log.info("Loaded {} stock reservations", loaded);
+    }
+
+    private static int held(Map<Integer, Hold> holds, Integer excludedCustomerId, Instant now) {
+        int held = 0;
+        for (Map.Entry<Integer, Hold> entry : holds.entrySet()) {
+            if (entry.getKey().equals(excludedCustomerId) || !entry.getValue().isActive(now)) continue;
+            held += entry.getValue().quantity();
+        }
+        return held;
+    }
+
+    private static Map<Integer, Hold> without(Map<Integer, Hold> holds, Integer customerId) {
+        if (!holds.containsKey(customerId)) return holds;
+        Map<Integer, Hold> next = new HashMap<>(holds);
+        next.remove(customerId);
+        return next.isEmpty() ? null : Map.copyOf(next);
+    }
+
+    private static BadRequestException outOfStock(Product product) {
+        return new BadRequestException("Producto agotado: " + product.getName());
+    }
+
+    private record Hold(int quantity, Instant expiresAt) {
+        boolean isActive(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.entity.CustomerTombstone;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.repository.CustomerTombstoneRepository;
+import com.uade.beappsint.service.TokenRevocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deny list for stateless authentication: stale security stamps or claims versions and deleted customers.
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    // Each refresh reads back this far before the previous one, for rows committed after their change time
+    // and for clock drift between nodes.
+    private static final long REFRESH_OVERLAP_MS = 60_000;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerTombstoneRepository customerTombstoneRepository;
+    private final boolean stateless;
+    private final long tokenLifetime;
+    private final Map<Integer, RevokedVersions> currentVersions = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> deletedAt = new ConcurrentHashMap<>();
+    private volatile Instant lastRefresh;
+
+    public TokenRevocationServiceImpl(
+            CustomerRepository customerRepository,
+            CustomerTombstoneRepository customerTombstoneRepository,
+            @Value("${security.jwt.stateless:false}") boolean stateless,
+            @Value("${security.jwt.expiration-time}") long tokenLifetime
+    ) {
+        this.customerRepository = customerRepository;
+        this.customerTombstoneRepository = customerTombstoneRepository;
+        this.stateless = stateless;
+        this.tokenLifetime = tokenLifetime;
+    }
+
+    public boolean isRevoked(Integer customerId, long tokenVersion, long claimsVersion, long issuedAt) {
+        Long deleted = deletedAt.get(customerId);
+        if (deleted != null && issuedAt <= deleted) return true;
+        RevokedVersions current = currentVersions.get(customerId);
+        if (current == null) return false;
+        if (tokenVersion < current.securityStamp()) return true;
+        // Stale claims only need a refresh: the refresh token is still valid and issues a current token.
+        return claimsVersion < current.claimsVersion();
+    }
+
+    /**
+     * Stores the tombstone next to the customer deletion, so nodes that never saw the deletion
+     * still deny the customer's tokens once they refresh.
+     */
+    public void recordDeletion(Integer customerId) {
+        long now = System.currentTimeMillis();
+        customerTombstoneRepository.save(new CustomerTombstone(customerId, Instant.ofEpochMilli(now)));
+        deletedAt.merge(customerId, now, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!stateless) return;
+        Instant now = Instant.now();
+        Instant cutoff = now.minusMillis(tokenLifetime);
+        Instant since = lastRefresh == null || lastRefresh.minusMillis(REFRESH_OVERLAP_MS).isBefore(cutoff)
+                ? cutoff
+                : lastRefresh.minusMillis(REFRESH_OVERLAP_MS);
+        try {
+            for (Object[] row : customerRepository.findRevocationVersionsChangedAfter(since)) {
+                recordVersions((Integer) row[0], (Long) row[1], (Long) row[2], (Instant) row[3]);
+            }
+            for (CustomerTombstone tombstone : customerTombstoneRepository.findByDeletedAtAfter(since)) {
+                deletedAt.merge(tombstone.getCustomerId(), tombstone.getDeletedAt().toEpochMilli(), Math::max);
+            }
+            customerTombstoneRepository.deleteOlderThan(cutoff);
+            lastRefresh = now;
+        } catch (RuntimeException e) {
+            // The next refresh reads again from the last successful one.
+            log.warn("Could not refresh the token deny list", e);
+        }
+        // Every token issued before a change has expired one token lifetime later.
+        long cutoffMillis = cutoff.toEpochMilli();
+        deletedAt.values().removeIf(at -> at < cutoffMillis);
+        currentVersions.values().removeIf(versions -> versions.changedAt() < cutoffMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.getCustomerId() == null) return;
+        if (event.isDeleted()) {
+            deletedAt.merge(event.getCustomerId(), System.currentTimeMillis(), Math::max);
+            currentVersions.remove(event.getCustomerId());
+            return;
+        }
+        recordVersions(event.getCustomerId(), event.getSecurityStamp(), event.getClaimsVersion(), event.getVersionsChangedAt());
+    }
+
+    private void recordVersions(Integer customerId, Long securityStamp, Long claimsVersion, Instant changedAt) {
+        if (changedAt == null || changedAt.toEpochMilli() < System.currentTimeMillis() - tokenLifetime) return;
+        RevokedVersions versions = new RevokedVersions(
+                securityStamp == null ? 0 : securityStamp,
+                claimsVersion == null ? 0 : claimsVersion,
+                changedAt.toEpochMilli());
+        currentVersions.merge(customerId, versions, RevokedVersions::max);
+    }
+
+    private record RevokedVersions(long securityStamp, long claimsVersion, long changedAt) {
+        RevokedVersions max(RevokedVersions other) {
+            return new RevokedVersions(
+                    Math.max(securityStamp, other.securityStamp),
+                    Math.max(claimsVersion, other.claimsVersion),
+                    Math.max(changedAt, other.changedAt));
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.uade.beappsint.service.impl;
 
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 import com.uade.beappsint.dto.cart.CartDTO;
 import com.uade.beappsint.dto.cart.CartItemDTO;
 import com.uade.beappsint.dto.transaction.TransactionDTO;
 import com.uade.beappsint.dto.transaction.TransactionItemDTO;
 import com.uade.beappsint.entity.*;
+import com.uade.beappsint.enums.ProductActivityTypeEnum;
+import com.uade.beappsint.event.ProductActivityEvent;
 import com.uade.beappsint.exception.BadRequestException;
 import com.uade.beappsint.repository.TransactionItemRepository;
 import com.uade.beappsint.repository.TransactionRepository;
@@ -17,6 +20,7 @@ import com.uade.beappsint.utils.TransactionUtilities;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.text.DecimalFormat;
@@ -33,12 +37,13 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
     private final TransactionItemRepository transactionItemRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${FRONTEND_CLIENT_URL}")
     private String frontendClientUrl;
 
     public void createAndSendEmailReceipt(TransactionDTO transactionDTO) {
-        Customer customer = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         // Send email
         Map<String, String> replacements = new HashMap<>();
         replacements.put("transactionId", transactionDTO.getId().toString());
@@ -66,8 +71,7 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public TransactionDTO createTransaction() {
-        cartService.checkoutCart();
-        CartDTO cartDTO = cartService.getUserCart();
+        CartDTO cartDTO = cartService.checkoutCart();
 
         double conversionRate = TransactionUtilities.getConversionRate();
 
@@ -78,8 +82,6 @@ public class TransactionServiceImpl implements TransactionService {
         savedTransaction.setAmountUSD(TransactionUtilities.calculateAmountUsdFromArs(cartDTO.getTotalPrice(), conversionRate));
         savedTransaction = transactionRepository.save(savedTransaction);
 
-        cartService.clearCart();
-
         TransactionDTO response = getTransactionById(savedTransaction.getId());
 
         createAndSendEmailReceipt(response);
@@ -89,7 +91,7 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public List<TransactionDTO> getTransactions() {
-        Customer customer = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         List<Transaction> transactions = transactionRepository.findAllByCustomerId(customer.getId());
         List<TransactionDTO> transactionDTOS = new ArrayList<>();
 
@@ -124,11 +126,11 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     private Transaction initializeTransaction(double conversionRate) {
-        Customer customer = authService.getAuthenticatedCustomer();
+        CustomerPrincipalDTO customer = authService.getAuthenticatedPrincipal();
         Transaction transaction = Transaction.builder()
                 .conversionRate(conversionRate)
                 .date(LocalDate.now())
-                .customer(authService.getAuthenticatedCustomer())
+                .customer(authService.getAuthenticatedCustomerReference())
                 .customerEmail(customer.getEmail())
                 .build();
         return transactionRepository.save(transaction);
@@ -151,6 +153,8 @@ public class TransactionServiceImpl implements TransactionService {
                     .quantity(cartItemDTO.getQuantity())
                     .build();
             transactionItemRepository.save(item);
+            eventPublisher.publishEvent(new ProductActivityEvent(cartItemDTO.getProduct().getId(),
+                    cartItemDTO.getProduct().getCategory(), ProductActivityTypeEnum.PURCHASE, cartItemDTO.getQuantity()));
         }
     }
 
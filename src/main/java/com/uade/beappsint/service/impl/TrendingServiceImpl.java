@@ -0,0 +1,190 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.enums.ProductActivityTypeEnum;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.enums.TrendingWindowEnum;
+import com.uade.beappsint.event.ProductActivityEvent;
+import com.uade.beappsint.event.ProductChangedEvent;
+import com.uade.beappsint.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Ranks products by views and purchases with forward exponential decay, one ranking per
+ * {@link TrendingWindowEnum}.
+ */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+    private static final String GLOBAL_KEY = "";
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double PURCHASE_WEIGHT = 5.0;
+    private static final double MAX_EXPONENT = 50.0;
+    private static final double MIN_SCORE = 1e-3;
+
+    private final int topN;
+    private final LongSupplier clock;
+    private final Map<TrendingWindowEnum, WindowRanking> rankings = new EnumMap<>(TrendingWindowEnum.class);
+    private volatile Map<TrendingWindowEnum, Map<String, List<Long>>> snapshots = Map.of();
+
+    @Autowired
+    public TrendingServiceImpl(@Value("${catalog.trending.top-n:10}") int topN) {
+        this(topN, System::currentTimeMillis);
+    }
+
+    public TrendingServiceImpl(int topN, LongSupplier clock) {
+        this.topN = topN;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        for (TrendingWindowEnum window : TrendingWindowEnum.values()) {
+            rankings.put(window, new WindowRanking(Math.log(2) / window.getHalfLife().toMillis(), now));
+        }
+    }
+
+    public List<Long> getTrending(String category, TrendingWindowEnum window) {
+        String key = category == null ? GLOBAL_KEY : category.toLowerCase();
+        return snapshots.getOrDefault(window, Map.of()).getOrDefault(key, List.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductActivity(ProductActivityEvent event) {
+        if (event.getProductId() == null) return;
+        double weight = event.getType() == ProductActivityTypeEnum.PURCHASE
+                ? PURCHASE_WEIGHT * Math.max(1, event.getQuantity())
+                : VIEW_WEIGHT;
+        String category = event.getCategory() == null ? null : event.getCategory().toLowerCase();
+        long now = clock.getAsLong();
+        for (WindowRanking ranking : rankings.values()) {
+            ranking.add(event.getProductId(), category, weight, now);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() != ProductChangeTypeEnum.DELETED) return;
+        for (WindowRanking ranking : rankings.values()) {
+            ranking.remove(event.getProductId());
+        }
+        refreshSnapshots();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.trending.refresh-interval-ms:1000}")
+    public void refreshSnapshots() {
+        Map<TrendingWindowEnum, Map<String, List<Long>>> next = new EnumMap<>(TrendingWindowEnum.class);
+        long now = clock.getAsLong();
+        for (Map.Entry<TrendingWindowEnum, WindowRanking> entry : rankings.entrySet()) {
+            next.put(entry.getKey(), entry.getValue().snapshot(topN, now));
+        }
+        snapshots = Collections.unmodifiableMap(next);
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    private record Ranked(long productId, double score) {
+    }
+
+    private static final Comparator<Ranked> BY_SCORE = Comparator
+            .comparingDouble(Ranked::score).reversed()
+            .thenComparingLong(Ranked::productId);
+
+    private static final class WindowRanking {
+        private final double lambda;
+        private long landmark;
+        private final Map<Long, Ranked> scores = new HashMap<>();
+        private final Map<Long, String> categories = new HashMap<>();
+        private final NavigableSet<Ranked> global = new TreeSet<>(BY_SCORE);
+        private final Map<String, NavigableSet<Ranked>> byCategory = new HashMap<>();
+
+        private WindowRanking(double lambda, long landmark) {
+            this.lambda = lambda;
+            this.landmark = landmark;
+        }
+
+        synchronized void add(long productId, String category, double weight, long now) {
+            rebaseIfNeeded(now);
+            Ranked previous = scores.get(productId);
+            String previousCategory = categories.get(productId);
+            if (previous != null) {
+                global.remove(previous);
+                if (previousCategory != null) byCategory.get(previousCategory).remove(previous);
+            }
+
+            double score = (previous == null ? 0 : previous.score()) + weight * Math.exp(lambda * (now - landmark));
+            Ranked ranked = new Ranked(productId, score);
+            String currentCategory = category != null ? category : previousCategory;
+            scores.put(productId, ranked);
+            global.add(ranked);
+            if (currentCategory != null) {
+                categories.put(productId, currentCategory);
+                byCategory.computeIfAbsent(currentCategory, key -> new TreeSet<>(BY_SCORE)).add(ranked);
+            }
+            if (previousCategory != null && byCategory.get(previousCategory).isEmpty()) {
+                byCategory.remove(previousCategory);
+            }
+        }
+
+        synchronized void remove(long productId) {
+            Ranked previous = scores.remove(productId);
+            String category = categories.remove(productId);
+            if (previous == null) return;
+            global.remove(previous);
+            if (category != null) {
+                NavigableSet<Ranked> set = byCategory.get(category);
+                set.remove(previous);
+                if (set.isEmpty()) byCategory.remove(category);
+            }
+        }
+
+        synchronized Map<String, List<Long>> snapshot(int topN, long now) {
+            rebaseIfNeeded(now);
+            Map<String, List<Long>> snapshot = new HashMap<>();
+            snapshot.put(GLOBAL_KEY, top(global, topN));
+            byCategory.forEach((category, set) -> snapshot.put(category, top(set, topN)));
+            return Collections.unmodifiableMap(snapshot);
+        }
+
+        private void rebaseIfNeeded(long now) {
+            double exponent = lambda * (now - landmark);
+            if (exponent < MAX_EXPONENT) return;
+
+            double factor = Math.exp(-exponent);
+            double threshold = MIN_SCORE * VIEW_WEIGHT;
+            List<Ranked> rescaled = new ArrayList<>(scores.size());
+            for (Ranked ranked : scores.values()) {
+                double score = ranked.score() * factor;
+                if (score >= threshold) rescaled.add(new Ranked(ranked.productId(), score));
+            }
+            landmark = now;
+            scores.clear();
+            global.clear();
+            byCategory.clear();
+            Map<Long, String> previousCategories = new HashMap<>(categories);
+            categories.clear();
+            for (Ranked ranked : rescaled) {
+                scores.put(ranked.productId(), ranked);
+                global.add(ranked);
+                String category = previousCategories.get(ranked.productId());
+                if (category != null) {
+                    categories.put(ranked.productId(), category);
+                    byCategory.computeIfAbsent(category, key -> new TreeSet<>(BY_SCORE)).add(ranked);
+                }
+            }
+        }
+
+        private static List<Long> top(NavigableSet<Ranked> set, int topN) {
+            List<Long> ids = new ArrayList<>(Math.min(topN, set.size()));
+            for (Ranked ranked : set) {
+                if (ids.size() == topN) break;
+                ids.add(ranked.productId());
+            }
+            return List.copyOf(ids);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.uade.beappsint.service.impl;
+
+import com.uade.beappsint.entity.VerificationCode;
+import com.uade.beappsint.repository.VerificationCodeRepository;
+import com.uade.beappsint.service.VerificationCodeService;
+import com.uade.beappsint.utils.CommonUtilities;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Issues and checks the per-customer email verification codes, dropping a code after a few wrong guesses.
+ */
+@Service
+public class VerificationCodeServiceImpl implements VerificationCodeService {
+    private final VerificationCodeRepository verificationCodeRepository;
+    private final Duration lifetime;
+    private final int maxAttempts;
+
+    public VerificationCodeServiceImpl(
+            VerificationCodeRepository verificationCodeRepository,
+            @Value("${security.verification-code.ttl-minutes:30}") long ttlMinutes,
+            @Value("${security.verification-code.max-attempts:5}") int maxAttempts
+    ) {
+        this.verificationCodeRepository = verificationCodeRepository;
+        this.lifetime = Duration.ofMinutes(ttlMinutes);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Creates a new code for the customer, replacing the previous one.
+     */
+    public String issue(Integer customerId) {
+        String code = CommonUtilities.generateVerificationCode();
+        VerificationCode verificationCode = verificationCodeRepository.findByCustomerId(customerId)
+                .orElseGet(() -> VerificationCode.builder().customerId(customerId).build());
+        verificationCode.setCode(code);
+        verificationCode.setExpiresAt(Instant.now().plus(lifetime));
+        verificationCode.setFailedAttempts(0);
+        verificationCodeRepository.save(verificationCode);
+        return code;
+    }
+
+    /**
+     * Checks the code and consumes it on success. Every guess takes an attempt before it is
+     * compared; once the attempts run out the code is deleted and a new one has to be requested.
+     */
+    public boolean verify(Integer customerId, String code) {
+        Optional<VerificationCode> stored = verificationCodeRepository.findByCustomerId(customerId);
+        if (stored.isEmpty() || code == null) return false;
+
+        VerificationCode verificationCode = stored.get();
+        if (verificationCode.getExpiresAt().isBefore(Instant.now())) {
+            verificationCodeRepository.delete(verificationCode);
+            return false;
+        }
+        if (verificationCodeRepository.takeAttempt(customerId, maxAttempts) == 0) {
+            verificationCodeRepository.delete(verificationCode);
+            return false;
+        }
+
+        boolean matches = MessageDigest.isEqual(
+                verificationCode.getCode().getBytes(StandardCharsets.US_ASCII),
+                code.trim().getBytes(StandardCharsets.US_ASCII)
+        );
+        // Only the request that deletes the row wins, so a code cannot be used twice.
+        return matches && verificationCodeRepository.consume(verificationCode.getId()) > 0;
+    }
+
+    public void deleteAllForCustomer(Integer customerId) {
+        verificationCodeRepository.deleteByCustomerId(customerId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.verification-code.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        verificationCodeRepository.deleteExpired(Instant.now());
+    }
+}
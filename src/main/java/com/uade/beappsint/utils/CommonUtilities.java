@@ -1,8 +1,10 @@
 package com.uade.beappsint.utils;
 
-import java.util.Random;
+import java.security.SecureRandom;
 
 public class CommonUtilities {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     public static double formatAmount(double amount) {
         return Math.round(amount * 100.0) / 100.0;
     }
@@ -23,14 +25,6 @@ public class CommonUtilities {
     }
 
     public static String generateVerificationCode() {
-        Random random = new Random();
-        StringBuilder result = new StringBuilder();
-
-        for (int i = 0; i < 6; i++) {
-            int randomNumber = random.nextInt(10); // Genera un número entre 0 y 9
-            result.append(randomNumber);
-        }
-
-        return result.toString();
+        return String.format("%06d", SECURE_RANDOM.nextInt(1_000_000));
     }
 }
@@ -0,0 +1,44 @@
+package com.uade.beappsint.utils;
+
+import com.uade.beappsint.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination. A cursor holds the
+ * sort value of the last returned row (if any) and its id, which breaks ties.
+ */
+public class CursorUtilities {
+    private static final String SEPARATOR = "|";
+
+    public static String encode(Long id) {
+        return encode(null, id);
+    }
+
+    public static String encode(Object sortValue, Long id) {
+        String raw = (sortValue == null ? "" : sortValue.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeId(String cursor) {
+        return Long.parseLong(split(cursor)[1]);
+    }
+
+    public static String decodeSortValue(String cursor) {
+        return split(cursor)[0];
+    }
+
+    private static String[] split(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 0) throw new BadRequestException("Invalid cursor.");
+            String[] parts = new String[]{raw.substring(0, index), raw.substring(index + 1)};
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
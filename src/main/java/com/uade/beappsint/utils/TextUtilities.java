@@ -0,0 +1,37 @@
+package com.uade.beappsint.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public class TextUtilities {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Most frequent Spanish and English function words; they carry no meaning for catalog search.
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o", "para", "por",
+            "que", "se", "su", "un", "una", "y", "and", "of", "the", "to"
+    );
+
+    /**
+     * Lowercases the text and removes accents, so "Acción" and "accion" are the same word.
+     */
+    public static String fold(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(fold(text))) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) continue;
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,16 @@
+-- Moves the recently viewed history out of the old unbounded join table, once.
+-- Run after the first start of the version that creates recently_viewed_product.
+-- The copy is idempotent (the primary key makes it INSERT IGNORE), so a failed or repeated run
+-- neither loses nor duplicates rows. The old rows have no view time and get the migration time;
+-- each history is trimmed on the customer's next view.
+
+START TRANSACTION;
+
+INSERT IGNORE INTO recently_viewed_product (customer_id, product_id, viewed_at)
+SELECT customer_id, product_id, NOW()
+FROM customer_recently_viewed;
+
+COMMIT;
+
+-- Once the copy is checked, drop the old table by hand:
+-- DROP TABLE customer_recently_viewed;
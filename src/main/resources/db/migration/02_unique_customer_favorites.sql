@@ -0,0 +1,24 @@
+-- Collapses duplicate favorites and adds the unique key on (customer_id, product_id), once.
+-- The old join table was a bag, so duplicate rows keep the schema update from creating the key.
+-- The distinct rows are copied into a new table that already has the key, and the two tables
+-- are swapped in one atomic RENAME. Nothing is deleted from the original before the swap, so a
+-- crash at any point leaves the favorites intact and the script can be run again.
+-- Run it with the application stopped, so no favorite is written between the copy and the swap.
+-- Skip it when SHOW INDEX FROM customer_favorite_products already lists uk_customer_favorite_product.
+
+DROP TABLE IF EXISTS customer_favorite_products_dedup;
+
+CREATE TABLE customer_favorite_products_dedup LIKE customer_favorite_products;
+
+ALTER TABLE customer_favorite_products_dedup
+    ADD CONSTRAINT uk_customer_favorite_product UNIQUE (customer_id, product_id);
+
+INSERT IGNORE INTO customer_favorite_products_dedup (customer_id, product_id)
+SELECT customer_id, product_id
+FROM customer_favorite_products;
+
+RENAME TABLE customer_favorite_products TO customer_favorite_products_legacy,
+             customer_favorite_products_dedup TO customer_favorite_products;
+
+-- Once the favorites are checked, drop the old copy by hand:
+-- DROP TABLE customer_favorite_products_legacy;
@@ -0,0 +1,5 @@
+-- Cart items used to be linked through a join table as well as their cart_id column. The
+-- mapping now uses cart_id only, and the join table blocks deleting items. Run once, after the
+-- first start of the version that maps Cart.cartItems by cart_id.
+
+DROP TABLE IF EXISTS cart_cart_items;
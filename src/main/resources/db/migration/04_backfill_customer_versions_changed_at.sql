@@ -0,0 +1,10 @@
+-- Gives a change time to the customers whose security stamp or claims version moved before
+-- customer.versions_changed_at existed, once. The token deny list only reads customers with a
+-- recent change time, so without it a token issued before the upgrade with an old version would
+-- be accepted until it expires. Run after the first start of the version that adds the column.
+-- Rows that already have a change time are left alone, so the script can be run again.
+
+UPDATE customer
+SET versions_changed_at = NOW(6)
+WHERE versions_changed_at IS NULL
+  AND (security_stamp > 0 OR claims_version > 0);
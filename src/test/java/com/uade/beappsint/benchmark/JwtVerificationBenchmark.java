@@ -0,0 +1,85 @@
+package com.uade.beappsint.benchmark;
+
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
+import com.uade.beappsint.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the filter's former three full parses of a token with {@code verifyToken} on a cache
+ * hit and on a miss. Run with {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main JwtVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET_KEY = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+    private static final long EXPIRATION = 3_600_000;
+
+    private JwtServiceImpl cachingService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingService = new JwtServiceImpl(SECRET_KEY, EXPIRATION, 10_000);
+        user = User.withUsername("user@test.com").password("unused").build();
+        token = cachingService.generateToken(Map.of("ss", 1, "cid", 7), user);
+        cachingService.verifyToken(token);
+    }
+
+    // What the filter did before: extractUsername, then isTokenValid, which parsed twice more.
+    // Each parse rebuilt the signing key and the parser.
+    @Benchmark
+    public void tripleParse(Blackhole blackhole) {
+        String username = parse(token).getSubject();
+        boolean valid = parse(token).getSubject().equals(user.getUsername())
+                && !parse(token).getExpiration().before(new Date());
+        blackhole.consume(username);
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public VerifiedTokenDTO verifyTokenCacheHit() {
+        return cachingService.verifyToken(token);
+    }
+
+    @Benchmark
+    public VerifiedTokenDTO verifyTokenCacheMiss(EmptyCache emptyCache) {
+        return emptyCache.service.verifyToken(token);
+    }
+
+    // A new service per call starts with an empty cache. A parse takes far longer than the
+    // per-invocation bookkeeping, so Level.Invocation does not skew the measurement.
+    @State(Scope.Thread)
+    public static class EmptyCache {
+        JwtServiceImpl service;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            service = new JwtServiceImpl(SECRET_KEY, EXPIRATION, 10_000);
+        }
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
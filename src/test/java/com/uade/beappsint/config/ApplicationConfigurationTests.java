@@ -0,0 +1,79 @@
+package com.uade.beappsint.config;
+
+import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.service.impl.PasswordHashingServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ApplicationConfigurationTests {
+
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private AuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = Mockito.mock(CustomerRepository.class);
+        passwordHashingService = new PasswordHashingServiceImpl(5, 1, 4);
+        authenticationProvider = new ApplicationConfiguration(customerRepository, passwordHashingService).authenticationProvider();
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void testLogin_RehashesAPasswordStoredWithAnotherCost() {
+        // Arrange
+        Customer customer = customer(new BCryptPasswordEncoder(4).encode("password"));
+        when(customerRepository.findByEmail("user@test.com")).thenReturn(Optional.of(customer));
+
+        // Act
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("user@test.com", "password"));
+
+        // Assert
+        ArgumentCaptor<Customer> saved = ArgumentCaptor.forClass(Customer.class);
+        verify(customerRepository).save(saved.capture());
+        assertTrue(saved.getValue().getPassword().startsWith("$2a$05$"));
+        assertTrue(passwordHashingService.matches("password", saved.getValue().getPassword()));
+    }
+
+    @Test
+    void testLogin_KeepsAPasswordStoredWithTheConfiguredCost() {
+        // Arrange
+        Customer customer = customer(passwordHashingService.encode("password"));
+        when(customerRepository.findByEmail("user@test.com")).thenReturn(Optional.of(customer));
+
+        // Act
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("user@test.com", "password"));
+
+        // Assert
+        verify(customerRepository, never()).save(any());
+    }
+
+    private static Customer customer(String password) {
+        Customer customer = new Customer();
+        customer.setId(1);
+        customer.setEmail("user@test.com");
+        customer.setPassword(password);
+        return customer;
+    }
+}
@@ -0,0 +1,139 @@
+package com.uade.beappsint.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.beappsint.enums.RateLimitScopeEnum;
+import com.uade.beappsint.exception.RestResponseEntityExceptionHandler;
+import com.uade.beappsint.service.RateLimiterService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AuthRateLimitFilterTests {
+
+    private static final String LOGIN_BODY = "{\"email\":\" User@Test.com \",\"password\":\"secret\"}";
+
+    @Mock
+    private RateLimiterService rateLimiterService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private ExceptionHandlerExceptionResolver handlerExceptionResolver;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiterService = Mockito.mock(RateLimiterService.class);
+        filterChain = Mockito.mock(FilterChain.class);
+
+        // Resolves exceptions through the application's handler, as the dispatcher would.
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("restResponseEntityExceptionHandler", RestResponseEntityExceptionHandler.class);
+        context.refresh();
+        handlerExceptionResolver = new ExceptionHandlerExceptionResolver();
+        handlerExceptionResolver.setApplicationContext(context);
+        handlerExceptionResolver.setMessageConverters(List.of(new MappingJackson2HttpMessageConverter()));
+        handlerExceptionResolver.afterPropertiesSet();
+    }
+
+    @Test
+    void testLogin_ReplaysTheBodyAfterReadingTheEmail() throws Exception {
+        // Arrange
+        AuthRateLimitFilter filter = filter(List.of());
+
+        // Act
+        filter.doFilter(login("203.0.113.5", null), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        ArgumentCaptor<ServletRequest> forwarded = ArgumentCaptor.forClass(ServletRequest.class);
+        verify(filterChain).doFilter(forwarded.capture(), any());
+        HttpServletRequest request = (HttpServletRequest) forwarded.getValue();
+        assertEquals(LOGIN_BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(LOGIN_BODY, request.getReader().readLine());
+        verify(rateLimiterService).tryAcquire(RateLimitScopeEnum.LOGIN_EMAIL, "user@test.com");
+    }
+
+    @Test
+    void testLogin_AnswersAnEmptyBucketWith429AndRetryAfter() throws Exception {
+        // Arrange
+        AuthRateLimitFilter filter = filter(List.of());
+        when(rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "203.0.113.5")).thenReturn(7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(login("203.0.113.5", null), response, filterChain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("7", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("Too many attempts"));
+        verify(rateLimiterService, never()).tryAcquire(eq(RateLimitScopeEnum.LOGIN_EMAIL), anyString());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testClientIp_IgnoresTheHeaderFromAnUntrustedPeer() throws Exception {
+        // Arrange
+        AuthRateLimitFilter filter = filter(List.of("10.0.0.0/8"));
+
+        // Act
+        filter.doFilter(login("203.0.113.5", "198.51.100.1"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(rateLimiterService).tryAcquire(RateLimitScopeEnum.LOGIN_IP, "203.0.113.5");
+    }
+
+    @Test
+    void testClientIp_TakesTheRightmostUntrustedHopBehindATrustedProxy() throws Exception {
+        // Arrange
+        AuthRateLimitFilter filter = filter(List.of("10.0.0.0/8", "192.168.1.10"));
+
+        // Act
+        filter.doFilter(login("10.0.0.2", "1.2.3.4, 198.51.100.1, 192.168.1.10"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(rateLimiterService).tryAcquire(RateLimitScopeEnum.LOGIN_IP, "198.51.100.1");
+    }
+
+    @Test
+    void testClientIp_TreatsAHopThatIsNotAnAddressAsTheClient() throws Exception {
+        // Arrange
+        AuthRateLimitFilter filter = filter(List.of("10.0.0.0/8"));
+
+        // Act
+        filter.doFilter(login("10.0.0.2", "198.51.100.1, unknown"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(rateLimiterService).tryAcquire(RateLimitScopeEnum.LOGIN_IP, "unknown");
+    }
+
+    private AuthRateLimitFilter filter(List<String> trustedProxies) {
+        return new AuthRateLimitFilter(rateLimiterService, new ObjectMapper(), handlerExceptionResolver, "X-Forwarded-For", trustedProxies);
+    }
+
+    private static MockHttpServletRequest login(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(remoteAddress);
+        request.setContentType("application/json");
+        request.setContent(LOGIN_BODY.getBytes(StandardCharsets.UTF_8));
+        if (forwardedFor != null) request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,163 @@
+package com.uade.beappsint.config;
+
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
+import com.uade.beappsint.enums.KycStatusEnum;
+import com.uade.beappsint.service.JwtService;
+import com.uade.beappsint.service.PrincipalCacheService;
+import com.uade.beappsint.service.TokenRevocationService;
+import com.uade.beappsint.service.impl.AuthServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthenticationFilterTests {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private PrincipalCacheService principalCacheService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = Mockito.mock(JwtService.class);
+        principalCacheService = Mockito.mock(PrincipalCacheService.class);
+        tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+        handlerExceptionResolver = Mockito.mock(HandlerExceptionResolver.class);
+        filterChain = Mockito.mock(FilterChain.class);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testStateless_BuildsThePrincipalFromTheClaims() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(true);
+        when(jwtService.verifyToken("token")).thenReturn(token(Map.of(
+                AuthServiceImpl.SECURITY_STAMP_CLAIM, 2,
+                AuthServiceImpl.CUSTOMER_ID_CLAIM, 7,
+                AuthServiceImpl.ADMIN_CLAIM, true,
+                AuthServiceImpl.KYC_STATUS_CLAIM, "COMPLETED_KYC",
+                AuthServiceImpl.CLAIMS_VERSION_CLAIM, 3)));
+
+        // Act
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        CustomerPrincipalDTO principal = authenticatedPrincipal();
+        assertEquals(7, principal.getId());
+        assertTrue(principal.isAdmin());
+        assertEquals(KycStatusEnum.COMPLETED_KYC, principal.getKycStatus());
+        verify(tokenRevocationService).isRevoked(7, 2L, 3L, 1_000L);
+        verifyNoInteractions(principalCacheService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testStateless_LeavesARevokedTokenUnauthenticated() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(true);
+        when(jwtService.verifyToken("token")).thenReturn(token(Map.of(
+                AuthServiceImpl.SECURITY_STAMP_CLAIM, 1,
+                AuthServiceImpl.CUSTOMER_ID_CLAIM, 7)));
+        when(tokenRevocationService.isRevoked(7, 1L, 0L, 1_000L)).thenReturn(true);
+
+        // Act
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testStateful_AcceptsATokenWithTheCurrentStamp() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(false);
+        when(jwtService.verifyToken("token")).thenReturn(token(Map.of(AuthServiceImpl.SECURITY_STAMP_CLAIM, 2)));
+        when(principalCacheService.getPrincipal("user@test.com")).thenReturn(new CustomerPrincipalDTO(7, "user@test.com", false, null, 2L));
+
+        // Act
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertEquals(7, authenticatedPrincipal().getId());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void testStateful_RejectsATokenWithAnOlderStamp() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(false);
+        when(jwtService.verifyToken("token")).thenReturn(token(Map.of(AuthServiceImpl.SECURITY_STAMP_CLAIM, 1)));
+        when(principalCacheService.getPrincipal("user@test.com")).thenReturn(new CustomerPrincipalDTO(7, "user@test.com", false, null, 2L));
+
+        // Act
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testStateful_AcceptsATokenIssuedBeforeTheStampClaim() throws Exception {
+        // Arrange
+        JwtAuthenticationFilter filter = filter(false);
+        when(jwtService.verifyToken("token")).thenReturn(token(Map.of()));
+        when(principalCacheService.getPrincipal("user@test.com")).thenReturn(new CustomerPrincipalDTO(7, "user@test.com", false, null, 2L));
+
+        // Act
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertEquals(7, authenticatedPrincipal().getId());
+    }
+
+    private JwtAuthenticationFilter filter(boolean stateless) {
+        return new JwtAuthenticationFilter(jwtService, principalCacheService, tokenRevocationService, handlerExceptionResolver, stateless);
+    }
+
+    private static VerifiedTokenDTO token(Map<String, Object> claims) {
+        return new VerifiedTokenDTO("user@test.com", 1_000L, Long.MAX_VALUE, claims);
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static CustomerPrincipalDTO authenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        return (CustomerPrincipalDTO) authentication.getPrincipal();
+    }
+}
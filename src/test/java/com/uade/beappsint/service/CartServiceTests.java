@@ -0,0 +1,264 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.dto.cart.AddRequestDTO;
+import com.uade.beappsint.dto.cart.CartBatchRequestDTO;
+import com.uade.beappsint.dto.cart.CartDTO;
+import com.uade.beappsint.dto.cart.CartLineDTO;
+import com.uade.beappsint.dto.cart.CartOperationDTO;
+import com.uade.beappsint.dto.cart.CartSummaryDTO;
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.enums.CartOperationTypeEnum;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.CartRepository;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.impl.CartServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CartServiceTests {
+
+    private CartServiceImpl cartService;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        authService = Mockito.mock(AuthService.class);
+        cartRepository = Mockito.mock(CartRepository.class);
+        productRepository = Mockito.mock(ProductRepository.class);
+        inventoryService = Mockito.mock(InventoryService.class);
+        stockReservationService = Mockito.mock(StockReservationService.class);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        // An idle time of zero makes every clean cart evictable right away.
+        cartService = new CartServiceImpl(authService, cartRepository, productRepository, inventoryService,
+                stockReservationService, jdbcTemplate, transactionManager, eventPublisher, 0, 100);
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(new CustomerPrincipalDTO(1, "user@test.com", false, null, 0L));
+        Product product = Product.builder().id(5L).name("Alien").price(10).stock(8).category("Terror").build();
+        when(productRepository.findById(5L)).thenReturn(Optional.of(product));
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(
+                ProductSummaryDTO.builder().id(5L).name("Alien").price(10).stock(8).category("Terror").build()));
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void testFlushDirtyCarts_WritesTheChangedCartOnce() {
+        // Arrange
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, null, null, null, null, 0L)));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    KeyHolder keys = invocation.getArgument(2);
+                    keys.getKeyList().add(Map.of("GENERATED_KEY", 11L));
+                    return new int[]{1};
+                });
+        cartService.addProductToCart(addRequest(5L, 2));
+
+        // Act
+        int flushed = cartService.flushDirtyCarts();
+        int flushedAgain = cartService.flushDirtyCarts();
+
+        // Assert
+        assertEquals(1, flushed);
+        assertEquals(0, flushedAgain);
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(jdbcTemplate).update("UPDATE cart SET total_price = ?, version = version + 1 WHERE id = ? AND version = ?", 20.0, 10L, 0L);
+        assertEquals(11L, cartService.getUserCart().getCartItems().get(0).getId());
+    }
+
+    @Test
+    void testFlushDirtyCarts_DropsACopyAnotherInstanceWroteOver() {
+        // Arrange
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(
+                List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 3L)),
+                List.of(new CartLineDTO(10L, 12L, 5, 5L, 10.0, 4L)));
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(0);
+        cartService.removeOneProductFromCart(5L);
+
+        // Act
+        int flushed = cartService.flushDirtyCarts();
+        CartDTO reloaded = cartService.getUserCart();
+
+        // Assert
+        assertEquals(0, flushed);
+        verify(jdbcTemplate).update("UPDATE cart SET total_price = ?, version = version + 1 WHERE id = ? AND version = ?", 10.0, 10L, 3L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(5, reloaded.getQuantity());
+        assertEquals(0, cartService.flushDirtyCarts());
+    }
+
+    @Test
+    void testEvictIdleCarts_KeepsDirtyCartsAndReloadsEvictedOnes() {
+        // Arrange
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 0L)));
+        cartService.getUserCart();
+        cartService.removeOneProductFromCart(5L);
+
+        // Act
+        cartService.evictIdleCarts();
+        CartDTO dirty = cartService.getUserCart();
+        cartService.flushDirtyCarts();
+        cartService.evictIdleCarts();
+        CartDTO reloaded = cartService.getUserCart();
+
+        // Assert
+        assertEquals(1, dirty.getQuantity());
+        assertEquals(2, reloaded.getQuantity());
+        verify(cartRepository, times(2)).findLinesByCustomerId(1);
+    }
+
+    @Test
+    void testOnCustomerChanged_DropsTheCartOfADeletedCustomer() {
+        // Arrange
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, null, null, null, null, 0L)));
+        cartService.addProductToCart(addRequest(5L, 1));
+
+        // Act
+        cartService.onCustomerChanged(new CustomerChangedEvent(1, "user@test.com", "user@test.com", 0L, 0L, null, true));
+        int flushed = cartService.flushDirtyCarts();
+
+        // Assert
+        assertEquals(0, flushed);
+        verifyNoInteractions(jdbcTemplate);
+        assertTrue(cartService.getUserCart().getCartItems().isEmpty());
+        verify(cartRepository, times(2)).findLinesByCustomerId(1);
+    }
+
+    @Test
+    void testApplyOperations_RollsBackHoldsWhenTheBatchFails() {
+        // Arrange
+        Product alien = productRepository.findById(5L).get();
+        Product scarce = Product.builder().id(6L).name("Gladiador").price(8).stock(1).category("Drama").build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(alien, scarce));
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 0L)));
+        doThrow(new BadRequestException("Producto agotado: Gladiador")).when(stockReservationService).hold(eq(1), eq(scarce), anyInt());
+        CartBatchRequestDTO request = new CartBatchRequestDTO(List.of(
+                new CartOperationDTO(CartOperationTypeEnum.ADD, 5L, 1),
+                new CartOperationDTO(CartOperationTypeEnum.ADD, 6L, 4)));
+
+        // Act
+        assertThrows(BadRequestException.class, () -> cartService.applyOperations(request));
+
+        // Assert
+        verify(stockReservationService).hold(eq(1), any(Product.class), eq(3));
+        verify(stockReservationService).reduce(1, 5L, 2);
+        assertEquals(2, cartService.getUserCart().getQuantity());
+        assertEquals(0, cartService.flushDirtyCarts());
+    }
+
+    @Test
+    void testGetCartSummary_AnswersALoadedCartFromMemory() {
+        // Arrange
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 0L)));
+        cartService.getUserCart();
+
+        // Act
+        CartSummaryDTO summary = cartService.getCartSummary();
+
+        // Assert
+        assertEquals(2, summary.getQuantity());
+        assertEquals(20.0, summary.getTotalPrice());
+        verify(cartRepository, never()).findSummaryByCustomerId(anyInt());
+    }
+
+    @Test
+    void testGetCartSummary_UsesTheAggregateQueryForAnUnloadedCart() {
+        // Arrange
+        when(cartRepository.findSummaryByCustomerId(1)).thenReturn(Optional.of(new CartSummaryDTO(3, 30.0)), Optional.empty());
+
+        // Act
+        CartSummaryDTO stored = cartService.getCartSummary();
+        CartSummaryDTO missing = cartService.getCartSummary();
+
+        // Assert
+        assertEquals(3, stored.getQuantity());
+        assertEquals(30.0, stored.getTotalPrice());
+        assertEquals(0, missing.getQuantity());
+        verify(cartRepository, never()).findLinesByCustomerId(anyInt());
+    }
+
+    @Test
+    void testCheckoutCart_ReturnsWhatWasBoughtAndEmptiesTheCart() {
+        // Arrange
+        Product alien = productRepository.findById(5L).get();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(alien));
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 0L)));
+
+        // Act
+        CartDTO bought = cartService.checkoutCart();
+
+        // Assert
+        assertEquals(2, bought.getQuantity());
+        assertEquals(20.0, bought.getTotalPrice());
+        verify(inventoryService).decrementStock(Map.of(5L, 2));
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM cart_item WHERE id = ?"), anyList());
+        verify(stockReservationService).releaseAll(1);
+        assertEquals(0, cartService.flushDirtyCarts());
+        assertTrue(cartService.getUserCart().getCartItems().isEmpty());
+    }
+
+    @Test
+    void testCheckoutCart_FailsAndKeepsTheCartWhenTheWriteFails() {
+        // Arrange
+        Product alien = productRepository.findById(5L).get();
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(alien));
+        when(cartRepository.findLinesByCustomerId(1)).thenReturn(List.of(new CartLineDTO(10L, 11L, 2, 5L, 10.0, 0L)));
+        when(jdbcTemplate.batchUpdate(eq("DELETE FROM cart_item WHERE id = ?"), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> cartService.checkoutCart());
+        verify(transactionManager).rollback(any());
+        verify(stockReservationService, never()).releaseAll(anyInt());
+        assertEquals(2, cartService.getUserCart().getQuantity());
+    }
+
+    private static AddRequestDTO addRequest(Long productId, int amount) {
+        AddRequestDTO request = new AddRequestDTO();
+        request.setProductId(productId);
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -1,9 +1,12 @@
 package com.uade.beappsint.service;
 
 import com.uade.beappsint.dto.AdminRequestDTO;
+import com.uade.beappsint.dto.CursorPageDTO;
 import com.uade.beappsint.dto.ProductDTO;
 import com.uade.beappsint.dto.ReviewDTO;
 import com.uade.beappsint.dto.auth.CustomerInfoDTO;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.dto.auth.CustomerQueryDTO;
 import com.uade.beappsint.dto.kyc.KycBasicRequestDTO;
 import com.uade.beappsint.dto.kyc.KycResponseDTO;
 import com.uade.beappsint.dto.profile.ProfileEditionDTO;
@@ -18,6 +21,7 @@ import com.uade.beappsint.repository.CartRepository;
 import com.uade.beappsint.repository.CustomerRepository;
 import com.uade.beappsint.repository.ReviewRepository;
 import com.uade.beappsint.service.impl.CustomerServiceImpl;
+import com.uade.beappsint.utils.CursorUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +32,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -58,10 +63,25 @@ public class CustomerServiceTests {
     @Mock
     private CartRepository cartRepository;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private VerificationCodeService verificationCodeService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RecentlyViewedService recentlyViewedService;
+
+    @Mock
+    private FavoriteService favoriteService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        customerService = new CustomerServiceImpl(customerRepository, productService, authService, adminRequestRepository, reviewRepository, cartRepository);
+        customerService = new CustomerServiceImpl(customerRepository, productService, authService, adminRequestRepository, reviewRepository, cartRepository, refreshTokenService, verificationCodeService, recentlyViewedService, favoriteService, tokenRevocationService);
         // Manually inject the mocks
     }
 
@@ -140,15 +160,15 @@ public class CustomerServiceTests {
         mockCustomer.setId(1);
         mockCustomer.setKycStatus(KycStatusEnum.BASIC_KYC);
 
-        Mockito.when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
-        Mockito.when(customerRepository.addFavoriteProduct(Mockito.anyInt(), Mockito.anyLong())).thenReturn(1);
+        Mockito.when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
+        Mockito.when(favoriteService.add(Mockito.anyInt(), Mockito.anyLong())).thenReturn(true);
 
         // Act
         boolean result = customerService.markProductAsFavorite(mockCustomer.getId(), 101L);
 
         // Assert
         assertTrue(result);
-        verify(customerRepository, times(1)).addFavoriteProduct(mockCustomer.getId(), 101L);
+        verify(favoriteService, times(1)).add(mockCustomer.getId(), 101L);
     }
 
     @Test
@@ -158,11 +178,11 @@ public class CustomerServiceTests {
         mockCustomer.setId(1);
         mockCustomer.setKycStatus(KycStatusEnum.COMPLETED_KYC);
 
-        Mockito.when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        Mockito.when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
 
         // Act & Assert
         assertThrowsExactly(BadRequestException.class, () -> customerService.markProductAsFavorite(mockCustomer.getId(), 101L));
-        verify(customerRepository, never()).addFavoriteProduct(Mockito.anyInt(), Mockito.anyLong());
+        verify(favoriteService, never()).add(Mockito.anyInt(), Mockito.anyLong());
     }
 
     @Test
@@ -172,7 +192,7 @@ public class CustomerServiceTests {
         mockCustomer.setId(1);
         mockCustomer.setKycStatus(KycStatusEnum.BASIC_KYC);
 
-        Mockito.when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        Mockito.when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
         Mockito.when(customerRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(mockCustomer));
 
         AdminRequest mockAdminRequest = new AdminRequest();
@@ -195,6 +215,7 @@ public class CustomerServiceTests {
     void testAddReview_Success() {
         // Arrange
         Customer mockCustomer = new Customer();
+        mockCustomer.setId(1);
         mockCustomer.setKycStatus(KycStatusEnum.BASIC_KYC);
 
         ReviewDTO reviewDTO = new ReviewDTO();
@@ -216,7 +237,7 @@ public class CustomerServiceTests {
         mockReview.setCustomer(mockCustomer);
         mockReview.setProduct(mockProduct);
 
-        Mockito.when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        Mockito.when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
         Mockito.when(customerRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(mockCustomer));
         Mockito.when(productService.getProductById(Mockito.anyLong())).thenReturn(mockProductDTO);
         Mockito.when(reviewRepository.save(Mockito.any(Review.class))).thenReturn(mockReview);
@@ -229,4 +250,32 @@ public class CustomerServiceTests {
         assertEquals(5, result.getRating());
         verify(reviewRepository, times(1)).save(Mockito.any(Review.class));
     }
+
+    @Test
+    void testGetRegisteredUsers_ReturnsOnePageWithCursor() {
+        // Arrange
+        Customer admin = new Customer();
+        admin.setId(1);
+        admin.setAdmin(true);
+        CustomerQueryDTO query = CustomerQueryDTO.builder().emailPrefix("ann").limit(2).build();
+
+        Mockito.when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(admin));
+        Mockito.when(customerRepository.findDirectoryPage(query, null, 3)).thenReturn(List.of(
+                CustomerInfoDTO.builder().id(4).email("ann@a.com").build(),
+                CustomerInfoDTO.builder().id(7).email("anna@b.com").build(),
+                CustomerInfoDTO.builder().id(9).email("annie@c.com").build()));
+
+        // Act
+        CursorPageDTO<CustomerInfoDTO> page = customerService.getRegisteredUsers(query);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(7L, CursorUtilities.decodeId(page.getNextCursor()));
+        verify(customerRepository, never()).findAll();
+    }
+
+    private static CustomerPrincipalDTO principalOf(Customer customer) {
+        return new CustomerPrincipalDTO(customer.getId(), customer.getEmail(), customer.isAdmin(), customer.getKycStatus(), customer.getSecurityStamp());
+    }
 }
@@ -0,0 +1,122 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ExportResourceEnum;
+import com.uade.beappsint.service.impl.ExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ExportServiceTests {
+
+    private static final String[] COLUMNS = {"id", "name", "price", "director"};
+
+    private ExportServiceImpl exportService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        authService = Mockito.mock(AuthService.class);
+        statement = Mockito.mock(PreparedStatement.class);
+        exportService = new ExportServiceImpl(jdbcTemplate, authService);
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(new CustomerPrincipalDTO(1, "admin@test.com", true, null, 0L));
+        ResultSet resultSet = resultSet(new Object[][]{
+                {1L, "Alien, el octavo pasajero", 10.5, "Ridley \"Sir\" Scott"},
+                {2L, "=HYPERLINK(\"http://evil\")", -3, "@director"},
+                {3L, "-1+1", 0, "\tTabbed"}
+        });
+        Connection connection = Mockito.mock(Connection.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            ResultSetExtractor<?> extractor = invocation.getArgument(1);
+            creator.createPreparedStatement(connection);
+            return extractor.extractData(resultSet);
+        });
+    }
+
+    @Test
+    void testExport_CsvEscapesFieldsAndNeutralizesFormulas() throws Exception {
+        // Act
+        String csv = export(DataFormatEnum.CSV, null);
+
+        // Assert
+        assertEquals("id,name,price,director\r\n" +
+                "1,\"Alien, el octavo pasajero\",10.5,\"Ridley \"\"Sir\"\" Scott\"\r\n" +
+                "2,\"'=HYPERLINK(\"\"http://evil\"\")\",-3,'@director\r\n" +
+                "3,'-1+1,0,'\tTabbed\r\n", csv);
+    }
+
+    @Test
+    void testExport_NdjsonWritesOneTypedObjectPerLine() throws Exception {
+        // Act
+        String ndjson = export(DataFormatEnum.NDJSON, null);
+
+        // Assert
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"Alien, el octavo pasajero\",\"price\":10.5,\"director\":\"Ridley \\\"Sir\\\" Scott\"}", lines[0]);
+        assertEquals("{\"id\":2,\"name\":\"=HYPERLINK(\\\"http://evil\\\")\",\"price\":-3,\"director\":\"@director\"}", lines[1]);
+        assertTrue(ndjson.endsWith("\n"));
+    }
+
+    @Test
+    void testExport_ResumesAfterTheGivenId() throws Exception {
+        // Act
+        export(DataFormatEnum.CSV, 42L);
+        export(DataFormatEnum.CSV, null);
+
+        // Assert
+        verify(statement).setLong(1, 42L);
+        verify(statement).setLong(1, 0L);
+    }
+
+    private String export(DataFormatEnum format, Long afterId) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(ExportResourceEnum.PRODUCTS, format, afterId, false).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static ResultSet resultSet(Object[][] rows) throws Exception {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(COLUMNS.length);
+        when(metaData.getColumnLabel(anyInt())).thenAnswer(invocation -> COLUMNS[(int) invocation.getArgument(0) - 1]);
+
+        // Each extraction starts over, so one result set serves several exports in a test.
+        AtomicInteger row = new AtomicInteger(-1);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenAnswer(invocation -> {
+            row.set(-1);
+            return metaData;
+        });
+        when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() < rows.length);
+        when(resultSet.getObject(anyInt())).thenAnswer(invocation -> rows[row.get()][(int) invocation.getArgument(0) - 1]);
+        return resultSet;
+    }
+}
@@ -0,0 +1,89 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.service.impl.InventoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private InventoryServiceImpl inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        productRepository = Mockito.mock(ProductRepository.class);
+        inventoryService = new InventoryServiceImpl(jdbcTemplate, productRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testDecrementStock_BatchesTheUpdatesInAscendingIdOrder() {
+        // Arrange
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(9L, 1);
+        quantities.put(2L, 3);
+        quantities.put(5L, 2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1, 1});
+
+        // Act
+        inventoryService.decrementStock(quantities);
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        verifyNoMoreInteractions(jdbcTemplate);
+        verifyNoInteractions(productRepository);
+        assertEquals(3, batch.getValue().size());
+        assertArrayEquals(new Object[]{3, 2L, 3}, batch.getValue().get(0));
+        assertArrayEquals(new Object[]{2, 5L, 2}, batch.getValue().get(1));
+        assertArrayEquals(new Object[]{1, 9L, 1}, batch.getValue().get(2));
+    }
+
+    @Test
+    void testDecrementStock_NamesTheProductsThatLackedStock() {
+        // Arrange
+        Map<Long, Integer> quantities = Map.of(2L, 1, 5L, 4, 9L, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+        when(productRepository.findAllById(List.of(5L)))
+                .thenReturn(List.of(Product.builder().id(5L).name("Alien").build()));
+
+        // Act
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> inventoryService.decrementStock(quantities));
+
+        // Assert
+        assertTrue(exception.getMessage().contains("Alien"));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(productRepository).findAllById(List.of(5L));
+    }
+
+    @Test
+    void testDecrementStock_RejectsANonPositiveQuantityBeforeUpdating() {
+        // Arrange
+        Map<Long, Integer> quantities = Map.of(2L, 1, 5L, 0);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> inventoryService.decrementStock(quantities));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,72 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.VerifiedTokenDTO;
+import com.uade.beappsint.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTests {
+
+    private static final String SECRET_KEY = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+
+    private JwtServiceImpl jwtService;
+
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl(SECRET_KEY, 3_600_000, 100);
+        user = User.withUsername("user@test.com").password("unused").build();
+    }
+
+    @Test
+    void testVerifyToken_ExpiredCachedTokenThrowsExpiredJwtException() throws InterruptedException {
+        // Arrange
+        String token = jwtService.buildToken(new HashMap<>(), user, 1500);
+        VerifiedTokenDTO verified = jwtService.verifyToken(token);
+
+        // Act
+        Thread.sleep(Math.max(0, verified.getExpiresAt() - System.currentTimeMillis()) + 100);
+
+        // Assert
+        assertEquals("user@test.com", verified.getSubject());
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verifyToken(token));
+    }
+
+    @Test
+    void testVerifyToken_RejectsATamperedToken() {
+        // Arrange
+        String token = jwtService.generateToken(Map.of("cid", 7), user);
+        jwtService.verifyToken(token);
+        int at = token.lastIndexOf('.') + 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> jwtService.verifyToken(tampered));
+    }
+
+    @Test
+    void testVerifyToken_SharesAnImmutableCopyOfTheClaims() {
+        // Arrange
+        String token = jwtService.generateToken(Map.of("cid", 7), user);
+
+        // Act
+        VerifiedTokenDTO first = jwtService.verifyToken(token);
+        VerifiedTokenDTO second = jwtService.verifyToken(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(7, first.getClaim("cid", Integer.class));
+        assertThrows(UnsupportedOperationException.class, () -> first.getClaims().put("cid", 8));
+        assertThrows(UnsupportedOperationException.class, () -> first.getClaims().remove("sub"));
+    }
+}
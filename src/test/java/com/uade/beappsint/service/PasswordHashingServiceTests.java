@@ -0,0 +1,100 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.exception.ServiceUnavailableException;
+import com.uade.beappsint.service.impl.PasswordHashingServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTests {
+
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordHashingService != null) passwordHashingService.shutdown();
+    }
+
+    @Test
+    void testEncode_RejectsWith503WhenTheQueueIsFull() throws Exception {
+        // Arrange
+        passwordHashingService = new PasswordHashingServiceImpl(4, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread running = new Thread(() -> passwordHashingService.encode(new BlockingPassword(release)));
+        Thread queued = new Thread(() -> passwordHashingService.encode(new BlockingPassword(release)));
+        running.start();
+        waitUntil(() -> passwordHashingService.getStats().getActiveThreads() == 1);
+        queued.start();
+        waitUntil(() -> passwordHashingService.getStats().getQueueDepth() == 1);
+
+        // Act
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> passwordHashingService.encode("password"));
+        release.countDown();
+        running.join();
+        queued.join();
+
+        // Assert
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, passwordHashingService.getStats().getRejectedTasks());
+        assertEquals(2, passwordHashingService.getStats().getCompletedTasks());
+    }
+
+    @Test
+    void testUpgradeEncoding_ComparesTheStoredCostWithTheConfiguredOne() {
+        // Arrange
+        passwordHashingService = new PasswordHashingServiceImpl(5, 1, 1);
+        PasswordHashingServiceImpl weaker = new PasswordHashingServiceImpl(4, 1, 1);
+        PasswordHashingServiceImpl stronger = new PasswordHashingServiceImpl(6, 1, 1);
+        String current = passwordHashingService.encode("password");
+
+        // Act & Assert
+        try {
+            assertFalse(passwordHashingService.upgradeEncoding(current));
+            assertTrue(passwordHashingService.upgradeEncoding(weaker.encode("password")));
+            assertTrue(passwordHashingService.upgradeEncoding(stronger.encode("password")));
+            assertFalse(passwordHashingService.upgradeEncoding("not-a-bcrypt-hash"));
+            assertFalse(passwordHashingService.upgradeEncoding(null));
+            assertTrue(passwordHashingService.matches("password", current));
+        } finally {
+            weaker.shutdown();
+            stronger.shutdown();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for the hashing pool");
+            Thread.sleep(5);
+        }
+    }
+
+    // BCrypt reads the password through toString, so this holds a pool thread until it is released.
+    private record BlockingPassword(CountDownLatch release) implements CharSequence {
+        public String toString() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password";
+        }
+
+        public int length() {
+            return toString().length();
+        }
+
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.service.impl.PrincipalCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PrincipalCacheServiceTests {
+
+    private PrincipalCacheServiceImpl principalCacheService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = Mockito.mock(CustomerRepository.class);
+        principalCacheService = new PrincipalCacheServiceImpl(customerRepository, 100, 300);
+        when(customerRepository.findPrincipalByEmail("old@test.com"))
+                .thenReturn(Optional.of(new CustomerPrincipalDTO(1, "old@test.com", false, null, 0L)));
+    }
+
+    @Test
+    void testGetPrincipal_LoadsEachEmailOnce() {
+        // Act
+        CustomerPrincipalDTO first = principalCacheService.getPrincipal("old@test.com");
+        CustomerPrincipalDTO second = principalCacheService.getPrincipal("old@test.com");
+
+        // Assert
+        assertSame(first, second);
+        verify(customerRepository, times(1)).findPrincipalByEmail("old@test.com");
+        assertThrows(UsernameNotFoundException.class, () -> principalCacheService.getPrincipal("missing@test.com"));
+    }
+
+    @Test
+    void testOnCustomerChanged_EvictsThePrincipalCachedUnderThePreviousEmail() {
+        // Arrange
+        principalCacheService.getPrincipal("old@test.com");
+
+        // Act
+        principalCacheService.onCustomerChanged(new CustomerChangedEvent(1, "new@test.com", "old@test.com", 1L, 0L, null, false));
+        principalCacheService.getPrincipal("old@test.com");
+
+        // Assert
+        verify(customerRepository, times(2)).findPrincipalByEmail("old@test.com");
+    }
+
+    @Test
+    void testOnCustomerChanged_EvictsADeletedCustomer() {
+        // Arrange
+        principalCacheService.getPrincipal("old@test.com");
+        when(customerRepository.findPrincipalByEmail("old@test.com")).thenReturn(Optional.empty());
+
+        // Act
+        principalCacheService.onCustomerChanged(new CustomerChangedEvent(1, "old@test.com", "old@test.com", 0L, 0L, null, true));
+
+        // Assert
+        assertThrows(UsernameNotFoundException.class, () -> principalCacheService.getPrincipal("old@test.com"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.uade.beappsint.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.beappsint.dto.Product.ProductImportErrorDTO;
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.dto.Product.ProductSearchDocumentDTO;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.service.impl.ProductImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductImportServiceTests {
+
+    private ProductImportServiceImpl importService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductSearchIndexService productSearchIndexService;
+
+    @Mock
+    private RecommendationIndexService recommendationIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        productService = Mockito.mock(ProductService.class);
+        productSearchIndexService = Mockito.mock(ProductSearchIndexService.class);
+        recommendationIndexService = Mockito.mock(RecommendationIndexService.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        importService = new ProductImportServiceImpl(jdbcTemplate, transactionManager, new ObjectMapper(), productService,
+                productSearchIndexService, recommendationIndexService, eventPublisher, 2);
+
+        when(productService.assertAdmin()).thenReturn(new CustomerPrincipalDTO(1, "admin@test.com", true, null, 0L));
+        when(transactionManager.getTransaction(any())).thenReturn(Mockito.mock(TransactionStatus.class));
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> generateKeys(invocation.getArgument(1), invocation.getArgument(2)));
+    }
+
+    @Test
+    void testImportProducts_CsvReadsQuotedMultiLineFields() {
+        // Arrange
+        String csv = "name,description,price,stock,category\r\n" +
+                "\"Alien, el octavo pasajero\",\"Primera linea\nSegunda \"\"linea\"\"\",10,5,Terror\r\n" +
+                "\r\n" +
+                "Blade Runner,,12.5,3,Ciencia ficcion\r\n";
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(input(csv), DataFormatEnum.CSV);
+
+        // Assert
+        assertEquals(2, result.getTotalRows());
+        assertEquals(2, result.getImportedRows());
+        List<ProductSearchDocumentDTO> documents = indexedDocuments(2);
+        assertEquals("Alien, el octavo pasajero", documents.get(0).getName());
+        assertEquals("Primera linea\nSegunda \"linea\"", documents.get(0).getDescription());
+        assertEquals("Blade Runner", documents.get(1).getName());
+        assertNull(documents.get(1).getDescription());
+    }
+
+    @Test
+    void testImportProducts_NdjsonReportsLinesThatAreNotObjects() {
+        // Arrange
+        String ndjson = "{\"name\":\"Alien\",\"price\":10,\"stock\":5,\"image_url\":null}\n" +
+                "\n" +
+                "{not json}\n" +
+                "[1, 2]\n" +
+                "{\"name\":\"Gladiador\",\"price\":8,\"stock\":\"abc\"}\n";
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(input(ndjson), DataFormatEnum.NDJSON);
+
+        // Assert
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(3, result.getFailedRows());
+        assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(ProductImportErrorDTO::getRow).toList());
+        assertTrue(result.getErrors().get(2).getMessage().contains("stock"));
+        assertEquals("Alien", indexedDocuments(1).get(0).getName());
+    }
+
+    @Test
+    void testImportProducts_RetriesAFailedChunkRowByRowInFreshTransactions() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'Alien'"))
+                .thenAnswer(invocation -> generateKeys(invocation.getArgument(1), invocation.getArgument(2)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'Alien'"));
+        String csv = "name,price,stock\nBlade Runner,12.5,3\nAlien,10,5\n";
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(input(csv), DataFormatEnum.CSV);
+
+        // Assert
+        assertEquals(1, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+        assertEquals("Duplicate entry 'Alien'", result.getErrors().get(0).getMessage());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals("Blade Runner", indexedDocuments(1).get(0).getName());
+    }
+
+    @Test
+    void testImportProducts_TruncatesTheErrorReport() {
+        // Arrange
+        StringBuilder csv = new StringBuilder("name,price,stock\n");
+        for (int i = 0; i < 1002; i++) {
+            csv.append("Producto ").append(i).append(",10,abc\n");
+        }
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(input(csv.toString()), DataFormatEnum.CSV);
+
+        // Assert
+        assertEquals(1002, result.getFailedRows());
+        assertEquals(1000, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    private int[] generateKeys(BatchPreparedStatementSetter setter, KeyHolder keys) {
+        for (int i = 0; i < setter.getBatchSize(); i++) {
+            keys.getKeyList().add(Map.of("GENERATED_KEY", nextId.getAndIncrement()));
+        }
+        return new int[setter.getBatchSize()];
+    }
+
+    private List<ProductSearchDocumentDTO> indexedDocuments(int count) {
+        ArgumentCaptor<ProductSearchDocumentDTO> documents = ArgumentCaptor.forClass(ProductSearchDocumentDTO.class);
+        verify(productSearchIndexService, times(count)).index(documents.capture());
+        return documents.getAllValues();
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
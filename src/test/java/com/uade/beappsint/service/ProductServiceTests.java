@@ -1,25 +1,71 @@
 package com.uade.beappsint.service;
 
+import com.uade.beappsint.dto.CursorPageDTO;
+import com.uade.beappsint.dto.GenericResponseDTO;
 import com.uade.beappsint.dto.ImageDTO;
+import com.uade.beappsint.dto.Product.FacetCountDTO;
+import com.uade.beappsint.dto.Product.ProductFeaturesDTO;
+import com.uade.beappsint.dto.Product.ProductImportResultDTO;
+import com.uade.beappsint.dto.Product.ProductQueryDTO;
+import com.uade.beappsint.dto.Product.ProductQueryResultDTO;
 import com.uade.beappsint.dto.Product.ProductRequestDTO;
+import com.uade.beappsint.dto.Product.ProductSearchDocumentDTO;
+import com.uade.beappsint.dto.Product.ProductSummaryDTO;
 import com.uade.beappsint.dto.ProductDTO;
+import com.uade.beappsint.dto.auth.CustomerPrincipalDTO;
 import com.uade.beappsint.entity.Customer;
 import com.uade.beappsint.entity.Image;
 import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.enums.DataFormatEnum;
+import com.uade.beappsint.enums.ProductActivityTypeEnum;
+import com.uade.beappsint.enums.ProductChangeTypeEnum;
+import com.uade.beappsint.enums.ProductSortFieldEnum;
+import com.uade.beappsint.event.ProductActivityEvent;
+import com.uade.beappsint.event.ProductChangedEvent;
 import com.uade.beappsint.exception.BadRequestException;
-import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.exception.ResourceNotFoundException;
 import com.uade.beappsint.repository.ImageRepository;
 import com.uade.beappsint.repository.ProductRepository;
+import com.uade.beappsint.dto.CatalogVersionDTO;
+import com.uade.beappsint.service.impl.CatalogCacheServiceImpl;
+import com.uade.beappsint.service.impl.CatalogVersionServiceImpl;
+import com.uade.beappsint.service.impl.ProductImportServiceImpl;
+import com.uade.beappsint.service.impl.ProductSearchIndexServiceImpl;
 import com.uade.beappsint.service.impl.ProductServiceImpl;
+import com.uade.beappsint.service.impl.ProductViewCounterServiceImpl;
+import com.uade.beappsint.service.impl.RecommendationIndexServiceImpl;
+import com.uade.beappsint.service.impl.TrendingServiceImpl;
+import com.uade.beappsint.utils.CursorUtilities;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,9 +78,6 @@ public class ProductServiceTests {
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private CustomerRepository customerRepository;
-
     @Mock
     private ImageRepository imageRepository;
 
@@ -44,34 +87,99 @@ public class ProductServiceTests {
     @Mock
     private CloudinaryService cloudinaryService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CatalogCacheServiceImpl catalogCacheService;
+
+    private ProductSearchIndexServiceImpl productSearchIndexService;
+
+    private RecommendationIndexServiceImpl recommendationIndexService;
+
+    private ProductViewCounterServiceImpl productViewCounterService;
+
+    private TrendingServiceImpl trendingService;
+
+    @Mock
+    private RecentlyViewedService recentlyViewedService;
+
+    @Mock
+    private FavoriteService favoriteService;
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         productRepository = Mockito.mock(ProductRepository.class);
-        customerRepository = Mockito.mock(CustomerRepository.class);
         imageRepository = Mockito.mock(ImageRepository.class);
         authService = Mockito.mock(AuthService.class);
         cloudinaryService = Mockito.mock(CloudinaryService.class);
-        productService = new ProductServiceImpl(productRepository, customerRepository, imageRepository, authService, cloudinaryService);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        catalogCacheService = new CatalogCacheServiceImpl(100, 60);
+        productSearchIndexService = new ProductSearchIndexServiceImpl(productRepository);
+        recommendationIndexService = new RecommendationIndexServiceImpl(productRepository, 10);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        productViewCounterService = new ProductViewCounterServiceImpl(jdbcTemplate, transactionManager, 60, 100, 10);
+        trendingService = new TrendingServiceImpl(3, clock::get);
+        recentlyViewedService = Mockito.mock(RecentlyViewedService.class);
+        favoriteService = Mockito.mock(FavoriteService.class);
+        productService = new ProductServiceImpl(productRepository, imageRepository, authService, cloudinaryService, catalogCacheService, productSearchIndexService, recommendationIndexService, productViewCounterService, recentlyViewedService, favoriteService, trendingService, eventPublisher);
     }
 
     @Test
     void testGetAllProducts() {
         // Arrange
-        Product product = new Product();
-        product.setId(1L);
+        ProductSummaryDTO product = ProductSummaryDTO.builder()
+                .id(1L)
+                .createdByEmail("creator@example.com")
+                .build();
 
-        Customer creator = new Customer();
-        creator.setEmail("creator@example.com");
-        product.setCreatedBy(creator);
+        when(productRepository.findSummaries(eq(0L), any(Limit.class))).thenReturn(Collections.singletonList(product));
 
-        when(productRepository.findAll()).thenReturn(Collections.singletonList(product));
+        // Act
+        CursorPageDTO<ProductSummaryDTO> result = productService.getAllProducts(null, null);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNotNull(result.getItems().get(0));
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetAllProducts_NextPage() {
+        // Arrange
+        List<ProductSummaryDTO> rows = List.of(
+                ProductSummaryDTO.builder().id(1L).build(),
+                ProductSummaryDTO.builder().id(2L).build(),
+                ProductSummaryDTO.builder().id(3L).build()
+        );
+
+        when(productRepository.findSummaries(eq(0L), eq(Limit.of(3)))).thenReturn(rows);
 
         // Act
-        List<ProductDTO> result = productService.getAllProducts();
+        CursorPageDTO<ProductSummaryDTO> firstPage = productService.getAllProducts(2, null);
 
         // Assert
-        assertEquals(1, result.size());
-        assertNotNull(result.get(0));
+        assertEquals(2, firstPage.getItems().size());
+        assertTrue(firstPage.isHasMore());
+
+        when(productRepository.findSummaries(eq(2L), eq(Limit.of(3)))).thenReturn(List.of(rows.get(2)));
+        CursorPageDTO<ProductSummaryDTO> secondPage = productService.getAllProducts(2, firstPage.getNextCursor());
+        assertEquals(3L, secondPage.getItems().get(0).getId());
+        assertFalse(secondPage.isHasMore());
+    }
+
+    @Test
+    void testGetAllProducts_InvalidCursor() {
+        assertThrows(BadRequestException.class, () -> productService.getAllProducts(10, "not-a-cursor"));
     }
 
     @Test
@@ -94,6 +202,28 @@ public class ProductServiceTests {
         assertEquals(1L, result.getId());
     }
 
+    @Test
+    void testGetProductById_CachedUntilChanged() {
+        // Arrange
+        Product product = new Product();
+        product.setId(1L);
+
+        Customer creator = new Customer();
+        creator.setEmail("test@example.com");
+        product.setCreatedBy(creator);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // Act
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+        catalogCacheService.onProductChanged(new ProductChangedEvent(1L, ProductChangeTypeEnum.UPDATED, Set.of()));
+        productService.getProductById(1L);
+
+        // Assert
+        verify(productRepository, times(2)).findById(1L);
+    }
+
     @Test
     void testGetProductById_NotFound() {
         // Arrange
@@ -122,7 +252,8 @@ public class ProductServiceTests {
         product.setName("Product A");
         product.setCreatedBy(mockAdmin);
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
+        when(authService.getAuthenticatedCustomerReference()).thenReturn(mockAdmin);
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         // Act
@@ -131,6 +262,7 @@ public class ProductServiceTests {
         // Assert
         assertNotNull(result);
         assertEquals("Product A", result.getName());
+        verify(authService, never()).getAuthenticatedCustomer();
     }
 
     @Test
@@ -140,7 +272,7 @@ public class ProductServiceTests {
         mockCustomer.setAdmin(false);
         ProductRequestDTO productRequestDTO = ProductRequestDTO.builder().build();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> productService.createProduct(productRequestDTO));
@@ -163,9 +295,10 @@ public class ProductServiceTests {
                 .stock(10)
                 .price(10.99)
                 .imageUrl("lorem.jpg")
+                .version(0L)
                 .build();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(existingProduct)).thenReturn(existingProduct);
 
@@ -175,6 +308,97 @@ public class ProductServiceTests {
         // Assert
         assertNotNull(updatedProduct);
         verify(productRepository, times(1)).save(existingProduct);
+        verify(authService, never()).getAuthenticatedCustomer();
+    }
+
+    @Test
+    void testUpdateProduct_RejectsAnEditBasedOnAnOlderVersion() {
+        // Arrange
+        Customer mockAdmin = new Customer();
+        mockAdmin.setId(1);
+        mockAdmin.setAdmin(true);
+
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setCreatedBy(mockAdmin);
+        existingProduct.setVersion(7);
+
+        ProductRequestDTO request = ProductRequestDTO.builder()
+                .name("Product A")
+                .stock(10)
+                .price(10.99)
+                .imageUrl("lorem.jpg")
+                .version(5L)
+                .build();
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, request));
+        verify(productRepository, never()).save(any(Product.class));
+        assertNull(existingProduct.getName());
+    }
+
+    @Test
+    void testUpdateProduct_SavesAnEditBasedOnTheCurrentVersion() {
+        // Arrange
+        Customer mockAdmin = new Customer();
+        mockAdmin.setId(1);
+        mockAdmin.setAdmin(true);
+
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setCreatedBy(mockAdmin);
+        existingProduct.setVersion(7);
+
+        ProductRequestDTO request = ProductRequestDTO.builder()
+                .name("Product A")
+                .stock(10)
+                .price(10.99)
+                .imageUrl("lorem.jpg")
+                .version(7L)
+                .build();
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(existingProduct)).thenReturn(existingProduct);
+
+        // Act
+        ProductDTO result = productService.updateProduct(1L, request);
+
+        // Assert
+        assertEquals("Product A", result.getName());
+        verify(productRepository).save(existingProduct);
+    }
+
+    @Test
+    void testUpdateProduct_RejectsAnEditWithoutAVersion() {
+        // Arrange
+        Customer mockAdmin = new Customer();
+        mockAdmin.setId(1);
+        mockAdmin.setAdmin(true);
+
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setCreatedBy(mockAdmin);
+        existingProduct.setStock(3);
+
+        ProductRequestDTO request = ProductRequestDTO.builder()
+                .name("Product A")
+                .stock(10)
+                .price(10.99)
+                .imageUrl("lorem.jpg")
+                .build();
+
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> productService.updateProduct(1L, request));
+        assertThrows(BadRequestException.class, () -> productService.updateProduct_v2(1L, request));
+        verify(productRepository, never()).save(any(Product.class));
+        assertEquals(3, existingProduct.getStock());
     }
 
     @Test
@@ -185,7 +409,7 @@ public class ProductServiceTests {
 
         ProductRequestDTO request = ProductRequestDTO.builder().build();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -210,9 +434,10 @@ public class ProductServiceTests {
                 .price(10.99)
                 .year(1990)
                 .imageUrl("lorem.jpg")
+                .version(0L)
                 .build();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(existingProduct)).thenReturn(existingProduct);
 
@@ -252,7 +477,7 @@ public class ProductServiceTests {
         existingProduct.setId(1L);
         existingProduct.setCreatedBy(mockAdmin);
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
 
         // Act
@@ -260,6 +485,7 @@ public class ProductServiceTests {
 
         // Assert
         verify(productRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -268,7 +494,7 @@ public class ProductServiceTests {
         Customer mockAdmin = new Customer();
         mockAdmin.setAdmin(true);
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -278,31 +504,282 @@ public class ProductServiceTests {
     @Test
     void testViewProduct_Success() {
         // Arrange
-        Customer mockCustomer = new Customer();
-        mockCustomer.setId(1);
-        mockCustomer.setRecentlyViewedProducts(new ArrayList<>());
+        CustomerPrincipalDTO principal = new CustomerPrincipalDTO(1, "user@test.com", false, null, 0L);
 
         Product product = new Product();
         product.setId(1L);
         product.setViews(0);
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principal);
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
         // Act
         productService.viewProduct(1L);
+        productService.viewProduct(1L);
+
+        // Assert
+        assertEquals(1, productViewCounterService.getPendingViews(1L));
+        verify(recentlyViewedService, times(1)).recordView(1, 1L);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void testToggleFavorite_WritesJoinTableOnly() {
+        // Arrange
+        CustomerPrincipalDTO principal = new CustomerPrincipalDTO(1, "user@test.com", false, null, 0L);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principal);
+        when(favoriteService.toggle(1, 5L)).thenReturn(true);
+
+        // Act
+        GenericResponseDTO response = productService.toggleFavorite(5L);
 
         // Assert
-        assertEquals(1, product.getViews());
-        assertEquals(1, mockCustomer.getRecentlyViewedProducts().size());
-        verify(customerRepository, times(1)).save(mockCustomer);
+        assertEquals("OK", response.getMessage());
+        verify(favoriteService, times(1)).toggle(1, 5L);
+        verify(authService, never()).getAuthenticatedCustomer();
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testViewProduct_FlushesPendingViews() {
+        // Arrange
+        productViewCounterService.recordView(1L, 1);
+        productViewCounterService.recordView(1L, 2);
+        productViewCounterService.recordView(2L, 1);
+
+        // Act
+        int flushed = productViewCounterService.flush();
+
+        // Assert
+        assertEquals(2, flushed);
+        assertEquals(0, productViewCounterService.getPendingViews(1L));
+        assertEquals(0, productViewCounterService.flush());
+    }
+
+    @Test
+    void testFlush_KeepsCommittedChunksWhenALaterChunkFails() {
+        // Arrange
+        ProductViewCounterServiceImpl counterService = new ProductViewCounterServiceImpl(jdbcTemplate, transactionManager, 60, 100, 1);
+        counterService.recordView(1L, 1);
+        counterService.recordView(2L, 1);
+        counterService.recordView(3L, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}})
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+                .thenReturn(new int[][]{{1}});
+
+        // Act
+        int firstRun = counterService.flush();
+        long pendingAfterFailure = counterService.getPendingViews(1L) + counterService.getPendingViews(2L) + counterService.getPendingViews(3L);
+        int secondRun = counterService.flush();
+
+        // Assert
+        assertEquals(1, firstRun);
+        assertEquals(2, pendingAfterFailure);
+        assertEquals(2, secondRun);
+        verify(transactionManager, times(3)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void testGetFeaturedProducts_RanksRecentActivity() {
+        // Arrange
+        for (long id = 1; id <= 3; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setCategory(id == 3 ? "Drama" : "Terror");
+            when(productRepository.findById(id)).thenReturn(Optional.of(product));
+        }
+        trendingService.onProductActivity(new ProductActivityEvent(1L, "Terror", ProductActivityTypeEnum.VIEW, 1));
+        trendingService.onProductActivity(new ProductActivityEvent(1L, "Terror", ProductActivityTypeEnum.VIEW, 1));
+        trendingService.onProductActivity(new ProductActivityEvent(2L, "Terror", ProductActivityTypeEnum.PURCHASE, 1));
+        trendingService.onProductActivity(new ProductActivityEvent(3L, "Drama", ProductActivityTypeEnum.VIEW, 1));
+        trendingService.refreshSnapshots();
+
+        // Act
+        List<ProductDTO> featured = productService.getFeaturedProducts(null, null);
+        List<ProductDTO> terror = productService.getFeaturedProducts("terror", null);
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 3L), featured.stream().map(ProductDTO::getId).toList());
+        assertEquals(List.of(2L, 1L), terror.stream().map(ProductDTO::getId).toList());
+        verify(productRepository, never()).findTop10ByOrderByViewsDesc();
+    }
+
+    @Test
+    void testGetFeaturedProducts_DecaysOldActivity() {
+        // Arrange
+        for (long id = 1; id <= 2; id++) {
+            Product product = new Product();
+            product.setId(id);
+            when(productRepository.findById(id)).thenReturn(Optional.of(product));
+        }
+        when(productRepository.findTop10ByOrderByViewsDesc()).thenReturn(List.of());
+        for (int i = 0; i < 3; i++) {
+            trendingService.onProductActivity(new ProductActivityEvent(1L, "Terror", ProductActivityTypeEnum.VIEW, 1));
+        }
+        clock.set(2 * 24 * 60 * 60 * 1000L);
+        trendingService.onProductActivity(new ProductActivityEvent(2L, "Terror", ProductActivityTypeEnum.VIEW, 1));
+        trendingService.refreshSnapshots();
+
+        // Act
+        List<ProductDTO> day = productService.getFeaturedProducts(null, "day");
+        List<ProductDTO> week = productService.getFeaturedProducts(null, "WEEK");
+
+        // Assert
+        assertEquals(List.of(2L, 1L), day.stream().map(ProductDTO::getId).toList());
+        assertEquals(List.of(1L, 2L), week.stream().map(ProductDTO::getId).toList());
+        assertThrows(BadRequestException.class, () -> productService.getFeaturedProducts(null, "month"));
+    }
+
+    @Test
+    void testQueryProducts_SortsByPriceWithFacets() {
+        // Arrange
+        ProductQueryDTO query = ProductQueryDTO.builder()
+                .categories(List.of("Terror"))
+                .minPrice(10.0)
+                .sort("price")
+                .direction("desc")
+                .limit(2)
+                .build();
+        List<ProductSummaryDTO> rows = List.of(
+                ProductSummaryDTO.builder().id(3L).price(30).build(),
+                ProductSummaryDTO.builder().id(1L).price(20).build(),
+                ProductSummaryDTO.builder().id(2L).price(15).build()
+        );
+        when(productRepository.findSummaries(query, null, ProductSortFieldEnum.PRICE, true, null, null, 3)).thenReturn(rows);
+        when(productRepository.countByCategory(query, null)).thenReturn(List.of(new FacetCountDTO("Terror", 3), new FacetCountDTO("Drama", 1)));
+        when(productRepository.countByDecade(query, null)).thenReturn(List.of(new FacetCountDTO("1990", 3)));
+
+        // Act
+        ProductQueryResultDTO result = productService.queryProducts(query);
+
+        // Assert
+        assertEquals(2, result.getPage().getItems().size());
+        assertTrue(result.getPage().isHasMore());
+        assertEquals("20.0", CursorUtilities.decodeSortValue(result.getPage().getNextCursor()));
+        assertEquals(1L, CursorUtilities.decodeId(result.getPage().getNextCursor()));
+        assertEquals(2, result.getCategories().size());
+        assertEquals("1990", result.getDecades().get(0).getValue());
+    }
+
+    @Test
+    void testQueryProducts_FlagsTruncatedTextMatches() {
+        // Arrange
+        for (long id = 1; id <= 1001; id++) {
+            productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(id).name("Alien " + id).build());
+        }
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(2000L).name("Prometheus").build());
+        ProductQueryDTO broad = ProductQueryDTO.builder().text("alien").build();
+        ProductQueryDTO narrow = ProductQueryDTO.builder().text("prometheus").build();
+        when(productRepository.findSummaries(any(), anyList(), any(), anyBoolean(), any(), any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        ProductQueryResultDTO broadResult = productService.queryProducts(broad);
+        ProductQueryResultDTO narrowResult = productService.queryProducts(narrow);
+
+        // Assert
+        assertTrue(broadResult.isTruncated());
+        assertFalse(narrowResult.isTruncated());
+        verify(productRepository).countByCategory(eq(broad), argThat(ids -> ids.size() == 1000));
+    }
+
+    @Test
+    void testQueryProducts_InvalidRequest() {
+        // Arrange
+        ProductQueryDTO badSort = ProductQueryDTO.builder().sort("rating").build();
+        ProductQueryDTO badRange = ProductQueryDTO.builder().minPrice(50.0).maxPrice(10.0).build();
+        ProductQueryDTO noTextHits = ProductQueryDTO.builder().text("inexistente").build();
+
+        // Act
+        ProductQueryResultDTO result = productService.queryProducts(noTextHits);
+
+        // Assert
+        assertThrows(BadRequestException.class, () -> productService.queryProducts(badSort));
+        assertThrows(BadRequestException.class, () -> productService.queryProducts(badRange));
+        assertTrue(result.getPage().getItems().isEmpty());
+        verify(productRepository, never()).findSummaries(any(), any(), any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testCatalogVersion_ChangesOnlyForChangedProduct() {
+        // Arrange
+        // A TTL of a thousand days keeps the validators inside one window for the whole test.
+        CatalogVersionServiceImpl catalogVersionService = new CatalogVersionServiceImpl(86_400_000);
+        CatalogVersionDTO catalogBefore = catalogVersionService.getCatalogVersion();
+        CatalogVersionDTO productBefore = catalogVersionService.getProductVersion(1L);
+        CatalogVersionDTO otherBefore = catalogVersionService.getProductVersion(2L);
+
+        // Act
+        catalogVersionService.onProductChanged(new ProductChangedEvent(1L, ProductChangeTypeEnum.UPDATED, Set.of("terror")));
+
+        // Assert
+        assertNotEquals(catalogBefore.getEtag(), catalogVersionService.getCatalogVersion().getEtag());
+        assertNotEquals(productBefore.getEtag(), catalogVersionService.getProductVersion(1L).getEtag());
+        assertEquals(otherBefore.getEtag(), catalogVersionService.getProductVersion(2L).getEtag());
+        assertTrue(catalogVersionService.getProductVersion(1L).getEtag().startsWith("\""));
+    }
+
+    @Test
+    void testCatalogVersion_RollsOverOncePerWindow() throws InterruptedException {
+        // Arrange
+        CatalogVersionServiceImpl catalogVersionService = new CatalogVersionServiceImpl(1);
+        CatalogVersionDTO before = catalogVersionService.getProductVersion(1L);
+
+        // Act
+        Thread.sleep(1100);
+        CatalogVersionDTO after = catalogVersionService.getProductVersion(1L);
+
+        // Assert
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertTrue(after.getLastModified() > before.getLastModified());
+    }
+
+    @Test
+    void testImportProducts_BatchesValidRowsAndReportsInvalidOnes() {
+        // Arrange
+        Customer admin = new Customer();
+        admin.setId(1);
+        admin.setAdmin(true);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(admin));
+        AtomicLong nextId = new AtomicLong(100);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    batchSizes.add(setter.getBatchSize());
+                    for (int i = 0; i < setter.getBatchSize(); i++) {
+                        keys.getKeyList().add(Map.of("GENERATED_KEY", nextId.getAndIncrement()));
+                    }
+                    return new int[0];
+                });
+        ProductImportServiceImpl importService = new ProductImportServiceImpl(jdbcTemplate, transactionManager, new ObjectMapper(), productService,
+                productSearchIndexService, recommendationIndexService, eventPublisher, 2);
+        String csv = "name,price,stock,category,image_url,year,director\n" +
+                "Alien,10,5,Terror,,1979,Ridley Scott\n" +
+                "\"Sin precio, ni stock\",-1,5,Terror,,,\n" +
+                "Blade Runner,12.5,3,Ciencia ficcion,,1982,Ridley Scott\n" +
+                "Gladiador,8,abc,Drama,,2000,Ridley Scott\n" +
+                "Prometheus,9,1,Terror,,2012,Ridley Scott\n";
+
+        // Act
+        ProductImportResultDTO result = importService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFormatEnum.CSV);
+
+        // Assert
+        assertEquals(5, result.getTotalRows());
+        assertEquals(3, result.getImportedRows());
+        assertEquals(List.of(2L, 4L), result.getErrors().stream().map(error -> error.getRow()).toList());
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(3, productSearchIndexService.size());
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
     void testViewProduct_NotFound() {
         // Arrange
-        Customer mockCustomer = new Customer();
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(new CustomerPrincipalDTO(1, "user@test.com", false, null, 0L));
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -312,45 +789,170 @@ public class ProductServiceTests {
     @Test
     void testSearchProductsByName_Success() {
         // Arrange
-        Product product = new Product();
-        product.setId(1L);
-        product.setName("Test Product");
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(1L).name("Test Product").build());
+        ProductSummaryDTO product = ProductSummaryDTO.builder().id(1L).name("Test Product").build();
+
+        when(productRepository.findSummariesByIdIn(List.of(1L))).thenReturn(Collections.singletonList(product));
 
-        // Initialize createdBy with a mock Customer
-        Customer createdByCustomer = new Customer();
-        createdByCustomer.setEmail("test@example.com"); // Set other required fields if necessary
-        product.setCreatedBy(createdByCustomer);
+        // Act
+        CursorPageDTO<ProductSummaryDTO> result = productService.searchProductsByName("Test", null, null);
 
-        when(productRepository.findByNameContainingIgnoreCase("Test")).thenReturn(Collections.singletonList(product));
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals("Test Product", result.getItems().get(0).getName());
+    }
+
+    @Test
+    void testSearchProductsByName_AccentsAndRanking() {
+        // Arrange
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(1L).name("Otra película").description("Una historia de acción").build());
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(2L).name("Acción total").category("Accion").build());
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(3L).name("Comedia").build());
+
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> ProductSummaryDTO.builder().id(id).build()).toList();
+        });
 
         // Act
-        List<ProductDTO> result = productService.searchProductsByName("Test");
+        CursorPageDTO<ProductSummaryDTO> firstPage = productService.searchProductsByName("ACCION", 1, null);
+        CursorPageDTO<ProductSummaryDTO> secondPage = productService.searchProductsByName("ACCION", 1, firstPage.getNextCursor());
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals("Test Product", result.get(0).getName());
+        assertEquals(2L, firstPage.getItems().get(0).getId());
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1L, secondPage.getItems().get(0).getId());
+        assertFalse(secondPage.isHasMore());
     }
 
     @Test
-    void testGetRecommendations_Success() {
+    void testSearchIndexRebuild_KeepsChangesMadeWhileReadingTheTable() {
         // Arrange
-        Product product = new Product();
-        product.setId(1L);
-        product.setCategory("Electronics");
+        productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(3L).name("Gladiador").build());
+        when(productRepository.findSearchDocuments(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // Changes committed after the rows below were read.
+            productSearchIndexService.index(ProductSearchDocumentDTO.builder().id(1L).name("Prometheus").build());
+            productSearchIndexService.remove(2L);
+            return List.of(
+                    ProductSearchDocumentDTO.builder().id(1L).name("Alien").build(),
+                    ProductSearchDocumentDTO.builder().id(2L).name("Blade Runner").build());
+        });
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.findRecommendationsByCategory("Electronics", 1L)).thenReturn(Collections.emptyList());
-        when(productRepository.findRecommendationsByDecade(anyInt(), anyInt(), anyLong())).thenReturn(Collections.emptyList());
-        when(productRepository.findRecommendationsByDirector(anyString(), anyLong())).thenReturn(Collections.emptyList());
+        // Act
+        productSearchIndexService.rebuild();
+
+        // Assert
+        assertEquals(1, productSearchIndexService.size());
+        assertEquals(1L, productSearchIndexService.search("prometheus", 10, null, null).get(0).getProductId());
+        assertTrue(productSearchIndexService.search("alien", 10, null, null).isEmpty());
+        assertTrue(productSearchIndexService.search("gladiador", 10, null, null).isEmpty());
+    }
+
+    @Test
+    void testGetRecommendations_Success() {
+        // Arrange
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(1L).category("Electronics").build());
 
         // Act
-        List<ProductDTO> result = productService.getRecommendations(1L);
+        List<ProductSummaryDTO> result = productService.getRecommendations(1L, null);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testRecommendationIndexRebuild_KeepsChangesMadeWhileReadingTheTable() {
+        // Arrange
+        when(productRepository.findFeatures(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // Changes committed after the rows below were read.
+            recommendationIndexService.index(ProductFeaturesDTO.builder().id(1L).category("Terror").build());
+            recommendationIndexService.remove(3L);
+            return List.of(
+                    ProductFeaturesDTO.builder().id(1L).category("Drama").build(),
+                    ProductFeaturesDTO.builder().id(2L).category("Terror").build(),
+                    ProductFeaturesDTO.builder().id(3L).category("Terror").build());
+        });
+
+        // Act
+        recommendationIndexService.rebuild();
+
+        // Assert
+        assertFalse(recommendationIndexService.contains(3L));
+        assertEquals(List.of(1L), recommendationIndexService.getRecommendations(2L, 10));
+    }
+
+    @Test
+    void testGetRecommendations_RankedByDirectorGenreAndDecade() {
+        // Arrange
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(1L).category("Drama").year(1994).director("Darabont").build());
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(2L).category("Drama").year(1991).build());
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(3L).category("Terror").year(2007).director("Darabont").build());
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(4L).category("Comedia").year(1995).build());
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(5L).category("Drama").year(2010).build());
+        recommendationIndexService.index(ProductFeaturesDTO.builder().id(6L).category("Comedia").year(2015).build());
+
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> ProductSummaryDTO.builder().id(id).build()).toList();
+        });
+
+        // Act
+        List<Long> ranked = productService.getRecommendations(1L, null).stream().map(ProductSummaryDTO::getId).toList();
+        recommendationIndexService.remove(3L);
+        List<Long> afterRemoval = productService.getRecommendations(1L, 2).stream().map(ProductSummaryDTO::getId).toList();
+
+        // Assert
+        assertEquals(List.of(3L, 2L, 5L, 4L), ranked);
+        assertEquals(List.of(2L, 5L), afterRemoval);
+    }
+
+    @Test
+    void testGetRecommendations_ListsStayRankedThroughChanges() {
+        // Arrange
+        Random random = new Random(42);
+        String[] categories = {"Drama", "Terror", "Comedia", null};
+        String[] directors = {"Scott", "Darabont", "Nolan", null, null, null};
+        Map<Long, ProductFeaturesDTO> catalog = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            Long id = (long) random.nextInt(150);
+            if (random.nextInt(4) == 0) {
+                recommendationIndexService.remove(id);
+                catalog.remove(id);
+            } else {
+                ProductFeaturesDTO product = ProductFeaturesDTO.builder().id(id)
+                        .category(categories[random.nextInt(categories.length)])
+                        .director(directors[random.nextInt(directors.length)])
+                        .year(1970 + random.nextInt(50)).build();
+                recommendationIndexService.index(product);
+                catalog.put(id, product);
+            }
+        }
+        RecommendationIndexServiceImpl rebuilt = new RecommendationIndexServiceImpl(productRepository, 10);
+        when(productRepository.findFeatures(eq(0L), any(Limit.class))).thenReturn(new TreeMap<>(catalog).values().stream().toList());
+
+        // Act
+        rebuilt.rebuild();
+
+        // Assert
+        for (ProductFeaturesDTO product : catalog.values()) {
+            List<Long> expected = catalog.values().stream()
+                    .filter(candidate -> !candidate.getId().equals(product.getId()) && similarity(product, candidate) > 0)
+                    .sorted(Comparator.comparingInt((ProductFeaturesDTO candidate) -> similarity(product, candidate)).reversed()
+                            .thenComparing(ProductFeaturesDTO::getId))
+                    .limit(10)
+                    .map(ProductFeaturesDTO::getId)
+                    .toList();
+            assertEquals(expected, recommendationIndexService.getRecommendations(product.getId(), 10), "product " + product.getId());
+            assertEquals(expected, rebuilt.getRecommendations(product.getId(), 10), "rebuilt product " + product.getId());
+        }
+    }
+
+    @Test
+    void testGetRecommendations_NotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> productService.getRecommendations(99L, null));
+    }
+
     @Test
     void testGetImagesByProductId_Success() {
         // Arrange
@@ -384,7 +986,7 @@ public class ProductServiceTests {
         product.setId(1L);
         product.setCreatedBy(mockAdmin);
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
         // Act
@@ -401,7 +1003,7 @@ public class ProductServiceTests {
         mockCustomer.setAdmin(false);
         ImageDTO imageDTO = new ImageDTO();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockCustomer);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockCustomer));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> productService.addImageToProduct(1L, imageDTO));
@@ -414,11 +1016,23 @@ public class ProductServiceTests {
         mockAdmin.setAdmin(true);
         ImageDTO imageDTO = new ImageDTO();
 
-        when(authService.getAuthenticatedCustomer()).thenReturn(mockAdmin);
+        when(authService.getAuthenticatedPrincipal()).thenReturn(principalOf(mockAdmin));
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> productService.addImageToProduct(1L, imageDTO));
     }
 
+    private static CustomerPrincipalDTO principalOf(Customer customer) {
+        return new CustomerPrincipalDTO(customer.getId(), customer.getEmail(), customer.isAdmin(), customer.getKycStatus(), customer.getSecurityStamp());
+    }
+
+    // Director 4, category 2, decade 1, as the recommendation index weighs them.
+    private static int similarity(ProductFeaturesDTO product, ProductFeaturesDTO candidate) {
+        int score = 0;
+        if (product.getDirector() != null && product.getDirector().equals(candidate.getDirector())) score += 4;
+        if (product.getCategory() != null && product.getCategory().equals(candidate.getCategory())) score += 2;
+        if (product.getYear() / 10 == candidate.getYear() / 10) score += 1;
+        return score;
+    }
 }
@@ -0,0 +1,65 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.enums.RateLimitScopeEnum;
+import com.uade.beappsint.service.impl.RateLimiterServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterServiceTests {
+
+    @Test
+    void testTryAcquire_EmptyBucketReportsTheSecondsUntilTheNextToken() {
+        // Arrange
+        RateLimiterServiceImpl rateLimiterService = rateLimiter(2, 1);
+
+        // Act
+        long first = rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+        long second = rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+        long third = rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertTrue(third > 58 && third <= 60, "retry after " + third);
+        assertEquals(1, rateLimiterService.getRejections().get("login-ip"));
+    }
+
+    @Test
+    void testTryAcquire_KeysAndScopesHaveTheirOwnBuckets() {
+        // Arrange
+        RateLimiterServiceImpl rateLimiterService = rateLimiter(1, 1);
+        rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+
+        // Act & Assert
+        assertTrue(rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1") > 0);
+        assertEquals(0, rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.2"));
+        assertEquals(0, rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_EMAIL, "10.0.0.1"));
+    }
+
+    @Test
+    void testTryAcquire_RefillsOverTime() throws InterruptedException {
+        // Arrange
+        RateLimiterServiceImpl rateLimiterService = rateLimiter(1, 120);
+        rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+
+        // Act
+        long rejected = rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+        Thread.sleep(600);
+        long refilled = rateLimiterService.tryAcquire(RateLimitScopeEnum.LOGIN_IP, "10.0.0.1");
+
+        // Assert
+        assertEquals(1, rejected);
+        assertEquals(0, refilled);
+    }
+
+    private static RateLimiterServiceImpl rateLimiter(long capacity, long refillPerMinute) {
+        MockEnvironment environment = new MockEnvironment();
+        for (RateLimitScopeEnum scope : RateLimitScopeEnum.values()) {
+            environment.setProperty("security.rate-limit." + scope.getKey() + ".capacity", String.valueOf(capacity));
+            environment.setProperty("security.rate-limit." + scope.getKey() + ".refill-per-minute", String.valueOf(refillPerMinute));
+        }
+        return new RateLimiterServiceImpl(environment, 1000, 900);
+    }
+}
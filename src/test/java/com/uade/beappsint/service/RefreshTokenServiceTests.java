@@ -0,0 +1,135 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.Customer;
+import com.uade.beappsint.entity.RefreshToken;
+import com.uade.beappsint.exception.JwtFilterException;
+import com.uade.beappsint.repository.RefreshTokenRepository;
+import com.uade.beappsint.service.impl.RefreshTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenServiceTests {
+
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private AuthMetricsService authMetricsService;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+        authMetricsService = Mockito.mock(AuthMetricsService.class);
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, authMetricsService, 60_000);
+
+        customer = new Customer();
+        customer.setId(1);
+        customer.setSecurityStamp(2L);
+    }
+
+    @Test
+    void testConsume_RotatesWithinTheSameFamily() {
+        // Arrange
+        RefreshToken stored = storedToken(false, 2L, Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(1);
+
+        // Act
+        RefreshToken consumed = refreshTokenService.consume("raw-token");
+        String next = refreshTokenService.issue(consumed.getCustomer(), consumed.getFamily());
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family-1", saved.getValue().getFamily());
+        assertEquals(2L, saved.getValue().getSecurityStamp());
+        assertNotEquals(stored.getTokenHash(), saved.getValue().getTokenHash());
+        assertNotEquals("raw-token", next);
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void testConsume_ReusedTokenRevokesTheWholeFamily() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(storedToken(true, 2L, Instant.now().plusSeconds(60))));
+
+        // Act
+        JwtFilterException exception = assertThrows(JwtFilterException.class, () -> refreshTokenService.consume("raw-token"));
+
+        // Assert
+        assertEquals("Invalid refresh token.", exception.getMessage());
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(authMetricsService).recordRefreshTokenReuse();
+        verify(refreshTokenRepository, never()).revoke(anyLong());
+    }
+
+    @Test
+    void testConsume_ConcurrentRotationRevokesTheWholeFamily() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(storedToken(false, 2L, Instant.now().plusSeconds(60))));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(JwtFilterException.class, () -> refreshTokenService.consume("raw-token"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+    }
+
+    @Test
+    void testConsume_StampMismatchRevokesTheFamily() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(storedToken(false, 1L, Instant.now().plusSeconds(60))));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(1);
+
+        // Act
+        JwtFilterException exception = assertThrows(JwtFilterException.class, () -> refreshTokenService.consume("raw-token"));
+
+        // Assert
+        assertEquals("Session expired.", exception.getMessage());
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verifyNoInteractions(authMetricsService);
+    }
+
+    @Test
+    void testConsume_ExpiredTokenIsRejected() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(storedToken(false, 2L, Instant.now().minusSeconds(1))));
+        when(refreshTokenRepository.revoke(10L)).thenReturn(1);
+
+        // Act
+        JwtFilterException exception = assertThrows(JwtFilterException.class, () -> refreshTokenService.consume("raw-token"));
+
+        // Assert
+        assertEquals("Session expired.", exception.getMessage());
+        verify(refreshTokenRepository).revoke(10L);
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    private RefreshToken storedToken(boolean revoked, long securityStamp, Instant expiresAt) {
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash("stored-hash")
+                .family("family-1")
+                .customer(customer)
+                .securityStamp(securityStamp)
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build();
+    }
+}
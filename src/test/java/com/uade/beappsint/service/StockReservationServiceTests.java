@@ -0,0 +1,74 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.Product;
+import com.uade.beappsint.exception.BadRequestException;
+import com.uade.beappsint.repository.StockReservationRepository;
+import com.uade.beappsint.service.impl.StockReservationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StockReservationServiceTests {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationRepository = Mockito.mock(StockReservationRepository.class);
+        product = Product.builder().id(5L).name("Alien").price(10).stock(3).build();
+    }
+
+    @Test
+    void testHold_OtherCustomersHoldsCountAgainstTheStock() {
+        // Arrange
+        StockReservationServiceImpl stockReservationService = new StockReservationServiceImpl(stockReservationRepository, true, 900);
+        stockReservationService.hold(1, product, 2);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> stockReservationService.hold(2, product, 2));
+        stockReservationService.hold(2, product, 1);
+        stockReservationService.hold(1, product, 2);
+        verify(stockReservationRepository).upsert(eq(2), eq(5L), eq(1), any(Instant.class));
+    }
+
+    @Test
+    void testHold_ExpiredHoldStopsCountingAndIsSwept() {
+        // Arrange
+        // A zero TTL makes every hold expire as soon as it is taken.
+        StockReservationServiceImpl stockReservationService = new StockReservationServiceImpl(stockReservationRepository, true, 0);
+        stockReservationService.hold(1, product, 3);
+
+        // Act
+        stockReservationService.hold(2, product, 3);
+        int expired = stockReservationService.expireHolds();
+
+        // Assert
+        assertEquals(2, expired);
+        assertEquals(0, stockReservationService.expireHolds());
+        verify(stockReservationRepository, times(2)).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void testReduce_LowersTheHoldWithoutLoadingTheProduct() {
+        // Arrange
+        StockReservationServiceImpl stockReservationService = new StockReservationServiceImpl(stockReservationRepository, true, 900);
+        stockReservationService.hold(1, product, 3);
+
+        // Act
+        stockReservationService.reduce(1, 5L, 1);
+        stockReservationService.hold(2, product, 2);
+
+        // Assert
+        verify(stockReservationRepository).upsert(eq(1), eq(5L), eq(1), any(Instant.class));
+        verify(stockReservationRepository).upsert(eq(2), eq(5L), eq(2), any(Instant.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.CustomerTombstone;
+import com.uade.beappsint.event.CustomerChangedEvent;
+import com.uade.beappsint.repository.CustomerRepository;
+import com.uade.beappsint.repository.CustomerTombstoneRepository;
+import com.uade.beappsint.service.impl.TokenRevocationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenRevocationServiceTests {
+
+    private static final long TOKEN_LIFETIME = 3_600_000;
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerTombstoneRepository customerTombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = Mockito.mock(CustomerRepository.class);
+        customerTombstoneRepository = Mockito.mock(CustomerTombstoneRepository.class);
+        tokenRevocationService = new TokenRevocationServiceImpl(customerRepository, customerTombstoneRepository, true, TOKEN_LIFETIME);
+    }
+
+    @Test
+    void testIsRevoked_OlderStampOrClaimsVersion() {
+        // Arrange
+        tokenRevocationService.onCustomerChanged(new CustomerChangedEvent(1, "user@test.com", "user@test.com", 2L, 3L, Instant.now(), false));
+        long now = System.currentTimeMillis();
+
+        // Act & Assert
+        assertTrue(tokenRevocationService.isRevoked(1, 1, 3, now));
+        assertTrue(tokenRevocationService.isRevoked(1, 2, 2, now));
+        assertFalse(tokenRevocationService.isRevoked(1, 2, 3, now));
+        assertFalse(tokenRevocationService.isRevoked(2, 0, 0, now));
+    }
+
+    @Test
+    void testRefresh_DeniesTokensOfACustomerDeletedOnAnotherNode() {
+        // Arrange
+        long deletedAt = System.currentTimeMillis();
+        when(customerRepository.findRevocationVersionsChangedAfter(any(Instant.class))).thenReturn(Collections.emptyList());
+        when(customerTombstoneRepository.findByDeletedAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new CustomerTombstone(1, Instant.ofEpochMilli(deletedAt))));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(1, 0, 0, deletedAt - 1000));
+        assertFalse(tokenRevocationService.isRevoked(1, 0, 0, deletedAt + 1000));
+        verify(customerTombstoneRepository).deleteOlderThan(any(Instant.class));
+    }
+
+    @Test
+    void testRecordDeletion_StoresATombstoneAndDeniesLocally() {
+        // Arrange
+        long issuedAt = System.currentTimeMillis() - 1000;
+
+        // Act
+        tokenRevocationService.recordDeletion(1);
+
+        // Assert
+        verify(customerTombstoneRepository).save(argThat(tombstone -> tombstone.getCustomerId() == 1));
+        assertTrue(tokenRevocationService.isRevoked(1, 0, 0, issuedAt));
+    }
+
+    @Test
+    void testRefresh_MergesVersionsWithoutLoweringThem() {
+        // Arrange
+        tokenRevocationService.onCustomerChanged(new CustomerChangedEvent(1, "user@test.com", "user@test.com", 5L, null, Instant.now(), false));
+        when(customerRepository.findRevocationVersionsChangedAfter(any(Instant.class))).thenReturn(List.<Object[]>of(new Object[]{1, 4L, 2L, Instant.now()}));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked(1, 4, 2, System.currentTimeMillis()));
+        assertTrue(tokenRevocationService.isRevoked(1, 5, 1, System.currentTimeMillis()));
+        assertFalse(tokenRevocationService.isRevoked(1, 5, 2, System.currentTimeMillis()));
+    }
+
+    @Test
+    void testRefresh_ReadsOnlyChangesSinceTheLastRefresh() {
+        // Arrange
+        when(customerRepository.findRevocationVersionsChangedAfter(any(Instant.class))).thenReturn(Collections.emptyList());
+        Instant start = Instant.now();
+
+        // Act
+        tokenRevocationService.refresh();
+        tokenRevocationService.refresh();
+
+        // Assert
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(customerRepository, times(2)).findRevocationVersionsChangedAfter(since.capture());
+        Instant first = since.getAllValues().get(0);
+        Instant second = since.getAllValues().get(1);
+        assertFalse(first.isBefore(start.minusMillis(TOKEN_LIFETIME)));
+        assertTrue(first.isBefore(Instant.now().minusMillis(TOKEN_LIFETIME - 1000)));
+        assertTrue(second.isAfter(start.minusMillis(120_000)));
+        verify(customerTombstoneRepository).findByDeletedAtAfter(second);
+    }
+
+    @Test
+    void testRefresh_ForgetsChangesOlderThanTheTokenLifetime() {
+        // Arrange
+        Instant expired = Instant.now().minusMillis(TOKEN_LIFETIME + 1000);
+        tokenRevocationService.onCustomerChanged(new CustomerChangedEvent(1, "user@test.com", "user@test.com", 3L, 0L, expired, false));
+        when(customerRepository.findRevocationVersionsChangedAfter(any(Instant.class))).thenReturn(List.<Object[]>of(new Object[]{2, 3L, 0L, expired}));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertFalse(tokenRevocationService.isRevoked(1, 2, 0, System.currentTimeMillis()));
+        assertFalse(tokenRevocationService.isRevoked(2, 2, 0, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.uade.beappsint.service;
+
+import com.uade.beappsint.entity.VerificationCode;
+import com.uade.beappsint.repository.VerificationCodeRepository;
+import com.uade.beappsint.service.impl.VerificationCodeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VerificationCodeServiceTests {
+
+    private VerificationCodeServiceImpl verificationCodeService;
+
+    @Mock
+    private VerificationCodeRepository verificationCodeRepository;
+
+    @BeforeEach
+    void setUp() {
+        verificationCodeRepository = Mockito.mock(VerificationCodeRepository.class);
+        verificationCodeService = new VerificationCodeServiceImpl(verificationCodeRepository, 30, 3);
+    }
+
+    @Test
+    void testVerify_RejectsAndDeletesAnExpiredCode() {
+        // Arrange
+        VerificationCode stored = storedCode("123456", Instant.now().minusSeconds(1));
+        when(verificationCodeRepository.findByCustomerId(1)).thenReturn(Optional.of(stored));
+
+        // Act
+        boolean verified = verificationCodeService.verify(1, "123456");
+
+        // Assert
+        assertFalse(verified);
+        verify(verificationCodeRepository).delete(stored);
+        verify(verificationCodeRepository, never()).takeAttempt(anyInt(), anyInt());
+    }
+
+    @Test
+    void testVerify_ConsumesTheCodeOnlyOnce() {
+        // Arrange
+        VerificationCode stored = storedCode("123456", Instant.now().plusSeconds(60));
+        when(verificationCodeRepository.findByCustomerId(1)).thenReturn(Optional.of(stored));
+        when(verificationCodeRepository.takeAttempt(1, 3)).thenReturn(1);
+        when(verificationCodeRepository.consume(7L)).thenReturn(1, 0);
+
+        // Act
+        boolean first = verificationCodeService.verify(1, " 123456 ");
+        boolean second = verificationCodeService.verify(1, "123456");
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    @Test
+    void testVerify_WrongCodeTakesAnAttemptWithoutConsuming() {
+        // Arrange
+        VerificationCode stored = storedCode("123456", Instant.now().plusSeconds(60));
+        when(verificationCodeRepository.findByCustomerId(1)).thenReturn(Optional.of(stored));
+        when(verificationCodeRepository.takeAttempt(1, 3)).thenReturn(1);
+
+        // Act
+        boolean verified = verificationCodeService.verify(1, "654321");
+
+        // Assert
+        assertFalse(verified);
+        verify(verificationCodeRepository).takeAttempt(1, 3);
+        verify(verificationCodeRepository, never()).consume(anyLong());
+    }
+
+    @Test
+    void testVerify_LockedOutCodeRejectsEvenTheRightGuess() {
+        // Arrange
+        VerificationCode stored = storedCode("123456", Instant.now().plusSeconds(60));
+        when(verificationCodeRepository.findByCustomerId(1)).thenReturn(Optional.of(stored));
+        when(verificationCodeRepository.takeAttempt(1, 3)).thenReturn(0);
+
+        // Act
+        boolean verified = verificationCodeService.verify(1, "123456");
+
+        // Assert
+        assertFalse(verified);
+        verify(verificationCodeRepository).delete(stored);
+        verify(verificationCodeRepository, never()).consume(anyLong());
+    }
+
+    private static VerificationCode storedCode(String code, Instant expiresAt) {
+        return VerificationCode.builder()
+                .id(7L)
+                .customerId(1)
+                .code(code)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}